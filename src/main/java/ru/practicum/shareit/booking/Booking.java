@@ -36,7 +36,21 @@ public class Booking {
     @JoinColumn(name = "BOOKER_ID", nullable = false)
     private User booker;
 
+    /**
+     * Владелец вещи, копия {@code item.owner}: списки бронирований владельца фильтруются
+     * по этому столбцу без соединения с таблицей вещей. Владелец вещи не меняется.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "OWNER_ID", nullable = false)
+    private User owner;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "STATUS", nullable = false)
     private BookingStatus status;
+
+    /**
+     * Версия последнего изменения бронирования из {@link ru.practicum.shareit.common.sync.ChangeClock}.
+     */
+    @Column(name = "CHANGE_VERSION", nullable = false)
+    private Long changeVersion;
 }
\ No newline at end of file
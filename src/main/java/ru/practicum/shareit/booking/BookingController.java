@@ -1,14 +1,26 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.constants.BookingState;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.events.BookingEventStream;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageParams;
+import ru.practicum.shareit.common.pagination.PageResponses;
+import ru.practicum.shareit.common.sync.ChangeSet;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -19,8 +31,13 @@ public class BookingController {
     private final BookingService bookingService;
     private static final String USER_HEADER = "X-Sharer-User-Id";
 
-    public BookingController(BookingService bookingService) {
+    private final BookingEventStream eventStream;
+    private final ObjectWriter ndjsonWriter;
+
+    public BookingController(BookingService bookingService, BookingEventStream eventStream, ObjectMapper objectMapper) {
         this.bookingService = bookingService;
+        this.eventStream = eventStream;
+        this.ndjsonWriter = objectMapper.writerFor(BookingResponseDto.class);
     }
 
     @PostMapping
@@ -39,6 +56,18 @@ public class BookingController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Поток SSE-событий {@code booking-created} и {@code booking-status} о бронированиях пользователя,
+     * как бронирующего, так и владельца вещи. При переподключении клиент передаёт {@code Last-Event-ID}
+     * и получает пропущенные события; если их уже нет, приходит событие {@code reset}.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(USER_HEADER) Long userId,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("BookingController streamEvents: userId = {}, lastEventId = {}", userId, lastEventId);
+        return eventStream.subscribe(userId, lastEventId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingResponseDto> getBooking(@RequestHeader(USER_HEADER) Long userId,
                                                          @PathVariable Long bookingId) {
@@ -50,20 +79,78 @@ public class BookingController {
     @GetMapping
     public ResponseEntity<List<BookingResponseDto>> getBookingsByBooker(
             @RequestHeader(USER_HEADER) Long userId,
-            @RequestParam(defaultValue = "ALL") String state) {
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
 
         BookingState bookingState = BookingState.from(state);
-        List<BookingResponseDto> list = bookingService.getBookingsByBooker(userId, bookingState);
-        return ResponseEntity.ok(list);
+        CursorPage<BookingResponseDto> page = bookingService.getBookingsByBooker(userId, bookingState,
+                PageParams.of(after, limit));
+        return PageResponses.ok(page);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<BookingResponseDto>> getBookingsForOwner(
+            @RequestHeader(USER_HEADER) Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("BookingController getBookingsForOwner: userId = {}, state = {}, after = {}, limit = {}",
+                userId, state, after, limit);
+        BookingState bookingState = BookingState.from(state);
+        CursorPage<BookingResponseDto> page = bookingService.getBookingsForOwner(userId, bookingState,
+                PageParams.of(after, limit));
+        return PageResponses.ok(page);
+    }
+
+    /**
+     * Бронирования пользователя, созданные или изменённые после токена {@code since} из предыдущего ответа.
+     * Без токена возвращаются все бронирования; пока {@code hasMore}, клиент запрашивает следующую порцию.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeSet<BookingResponseDto>> getBookingChangesByBooker(
+            @RequestHeader(USER_HEADER) Long userId,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("BookingController getBookingChangesByBooker: userId = {}, since = {}, limit = {}",
+                userId, since, limit);
+        ChangeSet<BookingResponseDto> changes = bookingService.getBookingChangesByBooker(userId,
+                PageParams.of(since, limit));
+        return ResponseEntity.ok(changes);
+    }
+
+    @GetMapping("/owner/changes")
+    public ResponseEntity<ChangeSet<BookingResponseDto>> getBookingChangesForOwner(
+            @RequestHeader(USER_HEADER) Long userId,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("BookingController getBookingChangesForOwner: userId = {}, since = {}, limit = {}",
+                userId, since, limit);
+        ChangeSet<BookingResponseDto> changes = bookingService.getBookingChangesForOwner(userId,
+                PageParams.of(since, limit));
+        return ResponseEntity.ok(changes);
+    }
+
+    /**
+     * Потоковая выгрузка всех бронирований владельца в формате NDJSON (один JSON-объект на строку).
+     * Выбирается заголовком {@code Accept: application/x-ndjson}; пагинация не применяется.
+     */
+    @GetMapping(value = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsForOwner(
             @RequestHeader(USER_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state) {
-        log.info("BookingController getBookingsForOwner: userId = {}, state = {}", userId, state);
+        log.info("BookingController exportBookingsForOwner: userId = {}, state = {}", userId, state);
         BookingState bookingState = BookingState.from(state);
-        List<BookingResponseDto> list = bookingService.getBookingsForOwner(userId, bookingState);
-        return ResponseEntity.ok(list);
+        StreamingResponseBody body = out -> bookingService.exportBookingsForOwner(userId, bookingState, dto -> {
+            try {
+                out.write(ndjsonWriter.writeValueAsBytes(dto));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.constants.BookingState;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageParams;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Кэш страниц списков бронирований пользователя (как бронирующего или как владельца).
+ * <p>
+ * Ответ для состояний CURRENT, PAST и FUTURE меняется не только при записи, но и когда текущее время
+ * переходит через начало или конец какого-либо бронирования пользователя. Поэтому такая запись живёт
+ * ровно до ближайшей такой границы. Ответы для остальных состояний от времени не зависят
+ * и ограничены только максимальным временем жизни.
+ * <p>
+ * При создании или изменении бронирования поколение пользователя увеличивается, и все его записи
+ * становятся недостижимыми. Страница, прочитанная до фиксации записи, кладётся в кэш под старым
+ * поколением и поэтому не будет отдана. Изменения имени вещи или пользователя кэш не сбрасывают:
+ * они попадут в ответ не позже чем через максимальное время жизни записи.
+ * <p>
+ * Поколения тоже хранятся в Caffeine и вытесняются, если к ним не обращались дольше максимального
+ * времени жизни страницы. Пользователь без поколения получает новое, ещё не выданное значение,
+ * поэтому вытеснение не может вернуть к жизни страницу прежнего поколения — оно стоит лишь промаха.
+ */
+@Slf4j
+@Component
+public class BookingQueryCache {
+
+    public enum Role {
+        BOOKER,
+        OWNER
+    }
+
+    private final Cache<Key, Entry> pages;
+    private final Cache<UserKey, Long> generations;
+    private final AtomicLong generationSequence = new AtomicLong();
+    private final Duration maxTtl;
+
+    public BookingQueryCache(@Value("${shareit.booking-cache.max-size:10000}") long maxSize,
+                             @Value("${shareit.booking-cache.max-ttl:5m}") Duration maxTtl,
+                             MeterRegistry meterRegistry) {
+        this.maxTtl = maxTtl;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(maxTtl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "bookingQueries");
+    }
+
+    /**
+     * Возвращает страницу из кэша или загружает её.
+     *
+     * @param loader       загрузка страницы из базы
+     * @param nextBoundary ближайшее начало или конец бронирования пользователя, не раньше переданного момента;
+     *                     {@code null}, если таких нет
+     */
+    public CursorPage<BookingResponseDto> get(Role role, Long userId, BookingState state, PageParams page,
+                                              Supplier<CursorPage<BookingResponseDto>> loader,
+                                              Function<LocalDateTime, LocalDateTime> nextBoundary) {
+        UserKey userKey = new UserKey(role, userId);
+        Key key = new Key(userKey, generations.get(userKey, k -> generationSequence.incrementAndGet()), state,
+                page.hasCursor() ? page.getAfter().encode() : null, page.getLimit());
+
+        Entry cached = pages.getIfPresent(key);
+        if (cached != null) {
+            return cached.page();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        CursorPage<BookingResponseDto> loaded = loader.get();
+        Duration ttl = maxTtl;
+        if (dependsOnTime(state)) {
+            LocalDateTime boundary = nextBoundary.apply(now);
+            if (boundary != null) {
+                Duration untilBoundary = Duration.between(now, boundary);
+                ttl = untilBoundary.compareTo(maxTtl) < 0 ? untilBoundary : maxTtl;
+            }
+        }
+        if (ttl.compareTo(Duration.ZERO) > 0) {
+            pages.put(key, new Entry(loaded, ttl.toNanos()));
+        }
+        return loaded;
+    }
+
+    /**
+     * Сбрасывает все закэшированные страницы пользователя в указанной роли.
+     * Вызывается после фиксации транзакции, изменившей его бронирования.
+     */
+    public void invalidate(Role role, Long userId) {
+        generations.put(new UserKey(role, userId), generationSequence.incrementAndGet());
+        log.debug("Кэш бронирований сброшен: роль = {}, пользователь id = {}", role, userId);
+    }
+
+    private static boolean dependsOnTime(BookingState state) {
+        return state == BookingState.CURRENT || state == BookingState.PAST || state == BookingState.FUTURE;
+    }
+
+    private record UserKey(Role role, Long userId) {
+    }
+
+    private record Key(UserKey user, long generation, BookingState state, String after, int limit) {
+    }
+
+    private record Entry(CursorPage<BookingResponseDto> page, long ttlNanos) {
+    }
+}
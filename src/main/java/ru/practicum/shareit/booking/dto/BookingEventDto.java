@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Данные SSE-события о бронировании: достаточно, чтобы обновить список без повторного запроса.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingEventDto {
+    private Long id;
+    private Long itemId;
+    private String itemName;
+    private Long bookerId;
+    private Long ownerId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingStatus status;
+}
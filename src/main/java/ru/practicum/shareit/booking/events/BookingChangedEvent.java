@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.events;
+
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+/**
+ * Бронирование создано или его статус изменился. Публикуется внутри транзакции изменения,
+ * подписчикам уходит только после её фиксации.
+ */
+public record BookingChangedEvent(Type type, BookingEventDto booking) {
+
+    public enum Type {
+        CREATED("booking-created"),
+        STATUS_CHANGED("booking-status");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        /**
+         * Имя SSE-события.
+         */
+        public String eventName() {
+            return eventName;
+        }
+    }
+}
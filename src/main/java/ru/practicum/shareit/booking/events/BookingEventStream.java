@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.common.sse.SseStream;
+import ru.practicum.shareit.common.sse.SseStreams;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+/**
+ * SSE-поток изменений бронирований пользователя: бронирующий и владелец вещи получают события
+ * о создании бронирования и о смене его статуса, не опрашивая списки.
+ * <p>
+ * События отправляются после фиксации транзакции, поэтому клиент, получив событие,
+ * уже может прочитать изменение через REST.
+ */
+@Slf4j
+@Component
+public class BookingEventStream {
+
+    private final SseStream<Long> stream;
+    private final UserRepository userRepository;
+
+    public BookingEventStream(SseStreams streams, UserRepository userRepository) {
+        this.stream = streams.create("bookings");
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Открывает поток событий пользователя.
+     *
+     * @param lastEventId значение заголовка {@code Last-Event-ID} при переподключении
+     * @throws NotFoundException если пользователь не найден
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден: " + userId);
+        }
+        log.debug("Подписка на события бронирований: userId = {}, Last-Event-ID = {}", userId, lastEventId);
+        return stream.subscribe(userId, lastEventId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        String name = event.type().eventName();
+        stream.publish(event.booking().getBookerId(), name, event.booking());
+        stream.publish(event.booking().getOwnerId(), name, event.booking());
+    }
+}
@@ -4,6 +4,7 @@ package ru.practicum.shareit.booking.mappers;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.constants.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -23,13 +24,27 @@ public class BookingMapper {
 
     public static Booking toBooking(BookingDto dto, Item item, User booker) {
         if (dto == null) return null;
-        return new Booking(
-                dto.getId(),
-                dto.getStart(),
-                dto.getEnd(),
-                item,
-                booker,
-                dto.getStatus() != null ? dto.getStatus() : BookingStatus.WAITING
-        );
+        return Booking.builder()
+                .id(dto.getId())
+                .start(dto.getStart())
+                .end(dto.getEnd())
+                .item(item)
+                .booker(booker)
+                .owner(item != null ? item.getOwner() : null)
+                .status(dto.getStatus() != null ? dto.getStatus() : BookingStatus.WAITING)
+                .build();
+    }
+
+    public static BookingEventDto toBookingEventDto(Booking b) {
+        return BookingEventDto.builder()
+                .id(b.getId())
+                .itemId(b.getItem().getId())
+                .itemName(b.getItem().getName())
+                .bookerId(b.getBooker().getId())
+                .ownerId(b.getOwner().getId())
+                .start(b.getStart())
+                .end(b.getEnd())
+                .status(b.getStatus())
+                .build();
     }
 }
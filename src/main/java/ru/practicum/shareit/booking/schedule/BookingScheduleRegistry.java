@@ -0,0 +1,175 @@
+package ru.practicum.shareit.booking.schedule;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingInterval;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Расписания вещей для проверки пересечения бронирований.
+ * <p>
+ * Расписание вещи загружается из BOOKINGS при первом обращении и дальше поддерживается
+ * в памяти сервисом бронирований. Все изменения занятости вещи выполняются под её блокировкой,
+ * поэтому параллельные {@code createBooking}/{@code approveBooking} одной вещи не могут
+ * занять пересекающиеся интервалы. Блокировка — {@link java.util.concurrent.locks.ReentrantLock},
+ * а не {@code synchronized}, чтобы не закреплять виртуальные потоки на время запроса к базе.
+ * <p>
+ * В памяти держатся только интервалы, которые ещё не закончились: загрузка берёт бронирования
+ * с концом позже текущего момента, а периодическая очистка убирает закончившиеся. Пересечение
+ * нового бронирования с уже закончившимися (начало бронирования может быть в прошлом) проверяется
+ * запросом к базе. Расписания, к которым не обращались дольше {@code idle-timeout}, выгружаются
+ * и при следующем обращении загружаются заново под блокировкой вещи.
+ * <p>
+ * Гарантия действует в пределах одного экземпляра приложения.
+ */
+@Slf4j
+@Component
+public class BookingScheduleRegistry {
+
+    private static final Set<BookingStatus> OCCUPYING = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final ConcurrentMap<Long, ItemSchedule> schedules = new ConcurrentHashMap<>();
+    private final BookingRepository bookingRepository;
+    private final ItemSchedule.History history;
+    private final Duration idleTimeout;
+
+    public BookingScheduleRegistry(BookingRepository bookingRepository,
+                                   @Value("${shareit.booking-schedule.idle-timeout:PT10M}") Duration idleTimeout) {
+        this.bookingRepository = bookingRepository;
+        this.idleTimeout = idleTimeout;
+        this.history = (itemId, start, end, horizon) ->
+                bookingRepository.existsEndedOverlap(itemId, OCCUPYING, start, end, horizon);
+    }
+
+    /**
+     * Удерживает ли бронирование в данном статусе время вещи.
+     */
+    public static boolean occupies(BookingStatus status) {
+        return OCCUPYING.contains(status);
+    }
+
+    /**
+     * Выполняет действие над расписанием вещи под её блокировкой.
+     * Должен вызываться внутри транзакции, которая изменяет бронирования этой вещи.
+     *
+     * @param itemId идентификатор вещи
+     * @param action действие; исключение из него пробрасывается вызывающему
+     */
+    public <T> T withSchedule(Long itemId, Function<ItemSchedule, T> action) {
+        while (true) {
+            ItemSchedule schedule = schedules.computeIfAbsent(itemId, id -> new ItemSchedule(id, history));
+            schedule.lock();
+            try {
+                if (schedule.isRetired()) {
+                    continue;
+                }
+                schedule.touch();
+                if (!schedule.isLoaded()) {
+                    load(schedule);
+                }
+                return action.apply(schedule);
+            } finally {
+                schedule.unlock();
+            }
+        }
+    }
+
+    /**
+     * Возвращает снимок занятости вещи. Если расписание не менялось с прошлого запроса,
+     * снимок отдаётся без блокировки и без обращения к базе.
+     *
+     * @param itemId идентификатор вещи
+     */
+    public Timeline timeline(Long itemId) {
+        ItemSchedule schedule = schedules.get(itemId);
+        if (schedule != null) {
+            Timeline cached = schedule.cachedTimeline();
+            if (cached != null) {
+                schedule.touch();
+                return cached;
+            }
+        }
+        return withSchedule(itemId, ItemSchedule::timeline);
+    }
+
+    /**
+     * Возвращает занятость вещи в окне {@code [from, to)}. Если окно начинается раньше горизонта снимка,
+     * закончившиеся к горизонту бронирования, пересекающиеся с окном, дочитываются из базы.
+     *
+     * @param itemId идентификатор вещи
+     */
+    public Timeline timeline(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Timeline recent = timeline(itemId);
+        long fromMillis = ItemSchedule.toEpochMilli(from);
+        if (fromMillis >= recent.horizon()) {
+            return recent;
+        }
+        List<Timeline.Slot> ended = new ArrayList<>();
+        for (BookingInterval interval : bookingRepository.findEndedIntervalsByItem(itemId, OCCUPYING, from, to,
+                ItemSchedule.toDateTime(recent.horizon()))) {
+            ended.add(new Timeline.Slot(ItemSchedule.toEpochMilli(interval.getStart()),
+                    ItemSchedule.toEpochMilli(interval.getEnd())));
+        }
+        return recent.withEnded(ended, fromMillis);
+    }
+
+    /**
+     * Выгружает расписания, к которым не обращались дольше {@code idle-timeout}, и убирает
+     * из остальных закончившиеся интервалы. Расписание, занятое запросом или ждущее завершения
+     * транзакции, пропускается до следующего запуска.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-schedule.sweep-interval:PT1M}",
+            initialDelayString = "${shareit.booking-schedule.sweep-interval:PT1M}")
+    public void sweep() {
+        long idleSince = System.nanoTime() - idleTimeout.toNanos();
+        long now = ItemSchedule.toEpochMilli(LocalDateTime.now());
+        int evicted = 0;
+        int pruned = 0;
+        for (ItemSchedule schedule : schedules.values()) {
+            if (!schedule.tryLock()) {
+                continue;
+            }
+            try {
+                if (schedule.isEvictable(idleSince)) {
+                    schedule.retire();
+                    schedules.remove(schedule.getItemId(), schedule);
+                    evicted++;
+                } else {
+                    pruned += schedule.prune(now);
+                }
+            } finally {
+                schedule.unlock();
+            }
+        }
+        if (evicted > 0 || pruned > 0) {
+            log.debug("Очистка расписаний: выгружено = {}, убрано закончившихся интервалов = {}, осталось = {}",
+                    evicted, pruned, schedules.size());
+        }
+    }
+
+    private void load(ItemSchedule schedule) {
+        long horizon = ItemSchedule.toEpochMilli(LocalDateTime.now());
+        int count = 0;
+        for (BookingInterval interval : bookingRepository.findIntervalsByItem(schedule.getItemId(), OCCUPYING,
+                ItemSchedule.toDateTime(horizon))) {
+            schedule.load(ItemSchedule.toEpochMilli(interval.getStart()),
+                    ItemSchedule.toEpochMilli(interval.getEnd()), interval.getId());
+            count++;
+        }
+        schedule.markLoaded(horizon);
+        log.debug("Загружено расписание вещи id = {}: интервалов = {}", schedule.getItemId(), count);
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.booking.schedule;
+
+/**
+ * Дерево интервалов: АВЛ-дерево полуоткрытых интервалов {@code [start, end)}, упорядоченных
+ * по {@code (start, id)}, где каждый узел хранит максимальный конец интервала в своём поддереве.
+ * Вставка, удаление и проверка пересечения выполняются за O(log n).
+ * Класс не потокобезопасен: доступ синхронизирует {@link ItemSchedule}.
+ */
+class IntervalTree {
+
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void insert(long start, long end, long id) {
+        root = insert(root, start, end, id);
+    }
+
+    void remove(long start, long id) {
+        root = remove(root, start, id);
+    }
+
+    /**
+     * Проверяет, пересекается ли {@code [start, end)} хотя бы с одним интервалом дерева.
+     */
+    boolean overlaps(long start, long end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start < end && node.end > start) {
+                return true;
+            }
+            node = node.left != null && node.left.maxEnd > start ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * Обходит интервалы по возрастанию начала.
+     */
+    void forEach(IntervalConsumer consumer) {
+        forEach(root, consumer);
+    }
+
+    @FunctionalInterface
+    interface IntervalConsumer {
+        void accept(long start, long end, long id);
+    }
+
+    private static void forEach(Node node, IntervalConsumer consumer) {
+        if (node == null) {
+            return;
+        }
+        forEach(node.left, consumer);
+        consumer.accept(node.start, node.end, node.id);
+        forEach(node.right, consumer);
+    }
+
+    private Node insert(Node node, long start, long end, long id) {
+        if (node == null) {
+            size++;
+            return new Node(start, end, id);
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, start, end, id);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, start, end, id);
+        } else {
+            node.end = end;
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            if (node.left == null || node.right == null) {
+                size--;
+                return node.left != null ? node.left : node.right;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.right = remove(node.right, successor.start, successor.id);
+            node.start = successor.start;
+            node.end = successor.end;
+            node.id = successor.id;
+        }
+        return balance(node);
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+        private long start;
+        private long end;
+        private long id;
+        private long maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long start, long end, long id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package ru.practicum.shareit.booking.schedule;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.common.utils.TransactionUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Занятые интервалы одной вещи — бронирования в статусах, которые удерживают время
+ * (см. {@link BookingScheduleRegistry#occupies}).
+ * Экземпляр доступен только внутри {@link BookingScheduleRegistry#withSchedule}, под блокировкой вещи.
+ * <p>
+ * В памяти хранятся только интервалы, которые заканчиваются позже горизонта — момента загрузки
+ * или последней очистки. Пересечения с закончившимися раньше проверяются запросом к базе
+ * ({@link History}): новое бронирование может начинаться в прошлом.
+ */
+public class ItemSchedule {
+
+    /**
+     * Пересечение с бронированиями вещи, закончившимися не позже горизонта расписания.
+     */
+    @FunctionalInterface
+    interface History {
+        boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end, LocalDateTime horizon);
+    }
+
+    private final Long itemId;
+    private final History history;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final IntervalTree intervals = new IntervalTree();
+    private boolean loaded;
+    private long horizon = Long.MIN_VALUE;
+    private int pending;
+    private boolean retired;
+    private volatile long lastUsedNanos = System.nanoTime();
+    private volatile Timeline timeline;
+
+    ItemSchedule(Long itemId, History history) {
+        this.itemId = itemId;
+        this.history = history;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        long startMillis = toEpochMilli(start);
+        if (intervals.overlaps(startMillis, toEpochMilli(end))) {
+            return true;
+        }
+        return startMillis < horizon && history.overlaps(itemId, start, end, toDateTime(horizon));
+    }
+
+    /**
+     * Занимает интервал бронирования сразу, до фиксации транзакции, чтобы параллельные
+     * бронирования той же вещи его видели. При откате транзакции интервал освобождается.
+     */
+    public void reserve(Booking booking) {
+        long start = toEpochMilli(booking.getStart());
+        long end = toEpochMilli(booking.getEnd());
+        long id = booking.getId();
+        intervals.insert(start, end, id);
+        timeline = null;
+        pin();
+        TransactionUtils.afterRollback(() -> locked(() -> {
+            intervals.remove(start, id);
+            timeline = null;
+        }));
+    }
+
+    /**
+     * Освобождает интервал бронирования после фиксации транзакции.
+     * До фиксации интервал остаётся занятым, поэтому откат не может привести к пересечению.
+     */
+    public void release(Booking booking) {
+        long start = toEpochMilli(booking.getStart());
+        long id = booking.getId();
+        pin();
+        TransactionUtils.afterCommit(() -> locked(() -> {
+            intervals.remove(start, id);
+            timeline = null;
+        }));
+    }
+
+    /**
+     * Возвращает снимок занятости, перестраивая его, если расписание изменилось.
+     * Занятыми считаются и бронирования, транзакции которых ещё не зафиксированы.
+     * Интервалы, закончившиеся до горизонта расписания, в снимок могут не попасть: горизонт снимка
+     * указывает, с какого момента он полон.
+     */
+    public Timeline timeline() {
+        Timeline current = timeline;
+        if (current == null) {
+            current = Timeline.of(intervals, horizon);
+            timeline = current;
+        }
+        return current;
+    }
+
+    public static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime toDateTime(long epochMilli) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMilli, 1000L),
+                (int) Math.floorMod(epochMilli, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    void lock() {
+        lock.lock();
+    }
+
+    boolean tryLock() {
+        return lock.tryLock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    Timeline cachedTimeline() {
+        return timeline;
+    }
+
+    void load(long start, long end, long id) {
+        intervals.insert(start, end, id);
+    }
+
+    void markLoaded(long horizon) {
+        this.horizon = horizon;
+        loaded = true;
+    }
+
+    void touch() {
+        lastUsedNanos = System.nanoTime();
+    }
+
+    /**
+     * Можно ли убрать расписание из памяти: к нему давно не обращались и нет незавершённых транзакций,
+     * изменения которых оно ещё должно учесть. Вызывается под блокировкой.
+     */
+    boolean isEvictable(long idleSinceNanos) {
+        return pending == 0 && lastUsedNanos - idleSinceNanos < 0;
+    }
+
+    /**
+     * Помечает расписание выведенным из реестра: следующее обращение загрузит новое.
+     * Вызывается под блокировкой.
+     */
+    void retire() {
+        retired = true;
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+
+    /**
+     * Убирает интервалы, закончившиеся не позже {@code newHorizon}, и сдвигает горизонт.
+     * Пока есть незавершённые транзакции, ничего не убирается: их бронирований ещё нет в базе,
+     * и проверка по истории их не увидит. Вызывается под блокировкой.
+     *
+     * @return число убранных интервалов
+     */
+    int prune(long newHorizon) {
+        if (!loaded || pending > 0 || newHorizon <= horizon) {
+            return 0;
+        }
+        List<long[]> ended = new ArrayList<>();
+        intervals.forEach((start, end, id) -> {
+            if (end <= newHorizon) {
+                ended.add(new long[]{start, id});
+            }
+        });
+        for (long[] interval : ended) {
+            intervals.remove(interval[0], interval[1]);
+        }
+        horizon = newHorizon;
+        if (!ended.isEmpty()) {
+            timeline = null;
+        }
+        return ended.size();
+    }
+
+    /**
+     * Удерживает расписание в реестре до завершения текущей транзакции: её изменения применяются
+     * к этому экземпляру после фиксации или отката. Вызывается под блокировкой.
+     */
+    private void pin() {
+        pending++;
+        TransactionUtils.afterCompletion(() -> locked(() -> pending--));
+    }
+
+    private void locked(Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
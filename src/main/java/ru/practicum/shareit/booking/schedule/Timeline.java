@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking.schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Неизменяемый снимок занятости вещи: отсортированные непересекающиеся интервалы {@code [start, end)}
+ * в миллисекундах эпохи, хранящиеся в двух массивах. Соседние и пересекающиеся бронирования слиты.
+ * Запрос по окну отвечает за O(log n + k), где k — число интервалов в окне.
+ * <p>
+ * Снимок полон начиная с горизонта: интервалы, закончившиеся не позже него, в нём могут отсутствовать
+ * (расписание вещи их не хранит) и добавляются из базы через {@link #withEnded(List, long)}.
+ */
+public final class Timeline {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long horizon;
+
+    private Timeline(long[] starts, long[] ends, long horizon) {
+        this.starts = starts;
+        this.ends = ends;
+        this.horizon = horizon;
+    }
+
+    /**
+     * Строит снимок из интервалов, отсортированных по началу.
+     */
+    static Timeline of(IntervalTree intervals, long horizon) {
+        long[] starts = new long[intervals.size()];
+        long[] ends = new long[intervals.size()];
+        int[] count = {0};
+        intervals.forEach((start, end, id) -> {
+            int last = count[0] - 1;
+            if (last >= 0 && start <= ends[last]) {
+                ends[last] = Math.max(ends[last], end);
+            } else {
+                starts[last + 1] = start;
+                ends[last + 1] = end;
+                count[0]++;
+            }
+        });
+        return new Timeline(Arrays.copyOf(starts, count[0]), Arrays.copyOf(ends, count[0]), horizon);
+    }
+
+    /**
+     * Момент, начиная с которого снимок полон.
+     */
+    public long horizon() {
+        return horizon;
+    }
+
+    /**
+     * Снимок, дополненный закончившимися интервалами, которые пересекаются с окном, начинающимся
+     * в {@code from}. Новый снимок полон начиная с {@code from}.
+     */
+    public Timeline withEnded(List<Slot> ended, long from) {
+        List<Slot> all = new ArrayList<>(ended.size() + starts.length);
+        all.addAll(ended);
+        for (int i = 0; i < starts.length; i++) {
+            all.add(new Slot(starts[i], ends[i]));
+        }
+        all.sort(Comparator.comparingLong(Slot::start));
+
+        long[] mergedStarts = new long[all.size()];
+        long[] mergedEnds = new long[all.size()];
+        int count = 0;
+        for (Slot slot : all) {
+            if (count > 0 && slot.start() <= mergedEnds[count - 1]) {
+                mergedEnds[count - 1] = Math.max(mergedEnds[count - 1], slot.end());
+            } else {
+                mergedStarts[count] = slot.start();
+                mergedEnds[count] = slot.end();
+                count++;
+            }
+        }
+        return new Timeline(Arrays.copyOf(mergedStarts, count), Arrays.copyOf(mergedEnds, count),
+                Math.min(from, horizon));
+    }
+
+    /**
+     * Занятые интервалы, пересекающиеся с окном {@code [from, to)}, обрезанные по его границам.
+     */
+    public List<Slot> busy(long from, long to) {
+        List<Slot> result = new ArrayList<>();
+        for (int i = firstEndingAfter(from); i < starts.length && starts[i] < to; i++) {
+            result.add(new Slot(Math.max(starts[i], from), Math.min(ends[i], to)));
+        }
+        return result;
+    }
+
+    /**
+     * Свободные промежутки внутри окна {@code [from, to)}.
+     */
+    public List<Slot> free(long from, long to) {
+        List<Slot> result = new ArrayList<>();
+        long cursor = from;
+        for (int i = firstEndingAfter(from); i < starts.length && starts[i] < to; i++) {
+            if (starts[i] > cursor) {
+                result.add(new Slot(cursor, starts[i]));
+            }
+            cursor = Math.max(cursor, ends[i]);
+        }
+        if (cursor < to) {
+            result.add(new Slot(cursor, to));
+        }
+        return result;
+    }
+
+    /**
+     * Индекс первого интервала, который заканчивается позже {@code instant}.
+     * Концы слитых интервалов возрастают, поэтому достаточно бинарного поиска.
+     */
+    private int firstEndingAfter(long instant) {
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] <= instant) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public record Slot(long start, long end) {
+    }
+}
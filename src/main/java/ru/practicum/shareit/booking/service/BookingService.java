@@ -3,8 +3,12 @@ package ru.practicum.shareit.booking.service;
 import ru.practicum.shareit.booking.constants.BookingState;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageParams;
+import ru.practicum.shareit.common.sync.ChangeSet;
+
+import java.util.function.Consumer;
 
-import java.util.List;
 
 public interface BookingService {
     BookingResponseDto createBooking(Long userId, BookingDto dto);
@@ -13,7 +17,13 @@ public interface BookingService {
 
     BookingResponseDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingResponseDto> getBookingsByBooker(Long userId, BookingState state);
+    CursorPage<BookingResponseDto> getBookingsByBooker(Long userId, BookingState state, PageParams page);
+
+    CursorPage<BookingResponseDto> getBookingsForOwner(Long userId, BookingState state, PageParams page);
+
+    ChangeSet<BookingResponseDto> getBookingChangesByBooker(Long userId, PageParams since);
+
+    ChangeSet<BookingResponseDto> getBookingChangesForOwner(Long userId, PageParams since);
 
-    List<BookingResponseDto> getBookingsForOwner(Long userId, BookingState state);
+    void exportBookingsForOwner(Long userId, BookingState state, Consumer<BookingResponseDto> consumer);
 }
\ No newline at end of file
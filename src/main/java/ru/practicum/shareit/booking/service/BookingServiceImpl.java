@@ -1,41 +1,77 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.cache.BookingQueryCache;
 import ru.practicum.shareit.booking.constants.BookingState;
 import ru.practicum.shareit.booking.constants.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.events.BookingChangedEvent;
 import ru.practicum.shareit.booking.mappers.BookingMapper;
 import ru.practicum.shareit.booking.mappers.BookingResponseMapper;
+import ru.practicum.shareit.booking.schedule.BookingScheduleRegistry;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.common.exceptions.NotFoundException;
 import ru.practicum.shareit.common.exceptions.ValidationException;
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageCursor;
+import ru.practicum.shareit.common.pagination.PageParams;
+import ru.practicum.shareit.common.sync.ChangeClock;
+import ru.practicum.shareit.common.sync.ChangeSet;
+import ru.practicum.shareit.common.utils.TransactionUtils;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingScheduleRegistry scheduleRegistry;
+    private final BookingQueryCache queryCache;
+    private final ItemBookingSummaryService summaryService;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeClock changeClock;
 
     public BookingServiceImpl(BookingRepository bookingRepository,
                               UserRepository userRepository,
-                              ItemRepository itemRepository) {
+                              ItemRepository itemRepository,
+                              BookingScheduleRegistry scheduleRegistry,
+                              BookingQueryCache queryCache,
+                              ItemBookingSummaryService summaryService,
+                              EntityManager entityManager,
+                              ApplicationEventPublisher eventPublisher,
+                              ChangeClock changeClock) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.scheduleRegistry = scheduleRegistry;
+        this.queryCache = queryCache;
+        this.summaryService = summaryService;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.changeClock = changeClock;
     }
 
     /**
@@ -45,7 +81,8 @@ public class BookingServiceImpl implements BookingService {
      * @param dto    данные о бронировании (даты, вещь, статус и т.д.)
      * @return {@link BookingResponseDto} с полной информацией о созданном бронировании
      * @throws NotFoundException   если пользователь или вещь не найдены
-     * @throws ValidationException если бронирование недопустимо (неверные даты, вещь недоступна, владелец бронирует сам у себя)
+     * @throws ValidationException если бронирование недопустимо (неверные даты, вещь недоступна, владелец бронирует сам у себя,
+     *                             вещь уже забронирована на пересекающийся период)
      */
     @Override
     @Transactional
@@ -70,10 +107,21 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Владелец не может бронировать собственную вещь");
         }
 
-        Booking booking = BookingMapper.toBooking(dto, item, booker);
-        booking.setStatus(BookingStatus.WAITING);
-
-        booking = bookingRepository.save(booking);
+        Booking booking = scheduleRegistry.withSchedule(item.getId(), schedule -> {
+            if (schedule.overlaps(dto.getStart(), dto.getEnd())) {
+                throw new ValidationException("Вещь уже забронирована на пересекающийся период");
+            }
+            Booking created = BookingMapper.toBooking(dto, item, booker);
+            created.setStatus(BookingStatus.WAITING);
+            created.setChangeVersion(changeClock.next());
+            created = bookingRepository.save(created);
+            schedule.reserve(created);
+            return created;
+        });
+        invalidateQueryCache(booking);
+        summaryService.bookingsChanged(item.getId());
+        eventPublisher.publishEvent(new BookingChangedEvent(BookingChangedEvent.Type.CREATED,
+                BookingMapper.toBookingEventDto(booking)));
         log.info("Бронирование создано: id = {}, статус = {}", booking.getId(), booking.getStatus());
 
         return BookingResponseMapper.toBookingResponseDto(booking);
@@ -87,7 +135,8 @@ public class BookingServiceImpl implements BookingService {
      * @param approved  {@code true}, если бронирование одобрено; {@code false}, если отклонено
      * @return {@link BookingResponseDto} с обновленным статусом бронирования
      * @throws NotFoundException   если бронирование не найдено
-     * @throws ValidationException если подтверждение недопустимо (не владелец, повторное подтверждение и т.д.)
+     * @throws ValidationException если подтверждение недопустимо (не владелец, повторное подтверждение,
+     *                             пересечение с другим бронированием при повторном одобрении и т.д.)
      */
     @Override
     @Transactional
@@ -95,10 +144,10 @@ public class BookingServiceImpl implements BookingService {
         log.debug("Подтверждение бронирования id = {} пользователем id = {}, статус: {}",
                 bookingId, ownerId, approved ? "APPROVED" : "REJECTED");
 
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithDetailsById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено: " + bookingId));
 
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+        if (!booking.getOwner().getId().equals(ownerId)) {
             throw new ValidationException("Только владелец может подтверждать бронирование");
         }
 
@@ -106,11 +155,29 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Бронирование уже подтверждено");
         }
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        booking = bookingRepository.save(booking);
-
-        log.info("Бронирование обновлено: id = {}, статус = {}", booking.getId(), booking.getStatus());
-        return BookingResponseMapper.toBookingResponseDto(booking);
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        Booking updated = scheduleRegistry.withSchedule(booking.getItem().getId(), schedule -> {
+            boolean wasOccupying = BookingScheduleRegistry.occupies(booking.getStatus());
+            boolean willOccupy = BookingScheduleRegistry.occupies(status);
+            if (!wasOccupying && willOccupy) {
+                if (schedule.overlaps(booking.getStart(), booking.getEnd())) {
+                    throw new ValidationException("Вещь уже забронирована на пересекающийся период");
+                }
+                schedule.reserve(booking);
+            } else if (wasOccupying && !willOccupy) {
+                schedule.release(booking);
+            }
+            booking.setStatus(status);
+            booking.setChangeVersion(changeClock.next());
+            return bookingRepository.save(booking);
+        });
+
+        invalidateQueryCache(updated);
+        summaryService.bookingsChanged(updated.getItem().getId());
+        eventPublisher.publishEvent(new BookingChangedEvent(BookingChangedEvent.Type.STATUS_CHANGED,
+                BookingMapper.toBookingEventDto(updated)));
+        log.info("Бронирование обновлено: id = {}, статус = {}", updated.getId(), updated.getStatus());
+        return BookingResponseMapper.toBookingResponseDto(updated);
     }
 
     /**
@@ -127,11 +194,11 @@ public class BookingServiceImpl implements BookingService {
     public BookingResponseDto getBookingById(Long userId, Long bookingId) {
         log.debug("Получение бронирования id = {} пользователем id = {}", bookingId, userId);
 
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithDetailsById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено: " + bookingId));
 
         if (!booking.getBooker().getId().equals(userId) &&
-                !booking.getItem().getOwner().getId().equals(userId)) {
+                !booking.getOwner().getId().equals(userId)) {
             throw new ValidationException("Доступ запрещён к данному бронированию");
         }
 
@@ -139,84 +206,215 @@ public class BookingServiceImpl implements BookingService {
     }
 
     /**
-     * Возвращает список бронирований, созданных пользователем.
+     * Возвращает страницу бронирований, созданных пользователем.
+     * Бронирования отсортированы по убыванию даты начала.
      *
      * @param userId идентификатор пользователя (бронирующего)
      * @param state  фильтр по состоянию бронирования (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
-     * @return список {@link BookingResponseDto}
+     * @param page   курсор и размер страницы
+     * @return страница {@link BookingResponseDto}
      * @throws NotFoundException если пользователь не найден
      */
     @Override
-    public List<BookingResponseDto> getBookingsByBooker(Long userId, BookingState state) {
-        if (!userRepository.existsById(userId)) {
+    public CursorPage<BookingResponseDto> getBookingsByBooker(Long userId, BookingState state, PageParams page) {
+        if (userRepository.findById(userId).isEmpty()) {
             throw new NotFoundException("Пользователь не найден: " + userId);
         }
 
+        return queryCache.get(BookingQueryCache.Role.BOOKER, userId, state, page,
+                () -> loadBookerPage(userId, state, page),
+                now -> bookingRepository.findNextBoundaryForBooker(userId, now));
+    }
+
+    private CursorPage<BookingResponseDto> loadBookerPage(Long userId, BookingState state, PageParams page) {
+        LocalDateTime afterStart = page.afterTimeDescending();
+        long afterId = page.afterIdDescending();
         List<Booking> bookings;
 
         switch (state) {
             case CURRENT:
-                bookings = bookingRepository.findCurrentByBooker(userId);
+                bookings = bookingRepository.findCurrentByBooker(userId, afterStart, afterId, page.probe());
                 break;
             case PAST:
-                bookings = bookingRepository.findPastByBooker(userId);
+                bookings = bookingRepository.findPastByBooker(userId, afterStart, afterId, page.probe());
                 break;
             case FUTURE:
-                bookings = bookingRepository.findFutureByBooker(userId);
+                bookings = bookingRepository.findFutureByBooker(userId, afterStart, afterId, page.probe());
                 break;
             case WAITING:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
+                bookings = bookingRepository.findByBookerAndStatus(userId, BookingStatus.WAITING,
+                        afterStart, afterId, page.probe());
                 break;
             case REJECTED:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
+                bookings = bookingRepository.findByBookerAndStatus(userId, BookingStatus.REJECTED,
+                        afterStart, afterId, page.probe());
                 break;
             default:
-                bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(userId);
+                bookings = bookingRepository.findAllByBooker(userId, afterStart, afterId, page.probe());
         }
 
-        return bookings.stream()
-                .map(BookingResponseMapper::toBookingResponseDto)
-                .collect(Collectors.toList());
+        return CursorPage.of(bookings, page, BookingServiceImpl::cursorOf, BookingResponseMapper::toBookingResponseDto);
     }
 
     /**
-     * Возвращает список бронирований для вещей, принадлежащих пользователю-владельцу.
+     * Возвращает страницу бронирований для вещей, принадлежащих пользователю-владельцу.
+     * Бронирования отсортированы по убыванию даты начала.
      *
      * @param userId идентификатор владельца
      * @param state  фильтр по состоянию бронирования (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
-     * @return список {@link BookingResponseDto}
+     * @param page   курсор и размер страницы
+     * @return страница {@link BookingResponseDto}
      * @throws NotFoundException если пользователь не найден
      */
     @Override
-    public List<BookingResponseDto> getBookingsForOwner(Long userId, BookingState state) {
-        if (!userRepository.existsById(userId)) {
+    public CursorPage<BookingResponseDto> getBookingsForOwner(Long userId, BookingState state, PageParams page) {
+        if (userRepository.findById(userId).isEmpty()) {
             throw new NotFoundException("Пользователь не найден: " + userId);
         }
 
+        return queryCache.get(BookingQueryCache.Role.OWNER, userId, state, page,
+                () -> loadOwnerPage(userId, state, page),
+                now -> bookingRepository.findNextBoundaryForOwner(userId, now));
+    }
+
+    private CursorPage<BookingResponseDto> loadOwnerPage(Long userId, BookingState state, PageParams page) {
+        LocalDateTime afterStart = page.afterTimeDescending();
+        long afterId = page.afterIdDescending();
         List<Booking> bookings;
 
         switch (state) {
             case CURRENT:
-                bookings = bookingRepository.findCurrentByOwner(userId);
+                bookings = bookingRepository.findCurrentByOwner(userId, afterStart, afterId, page.probe());
                 break;
             case PAST:
-                bookings = bookingRepository.findPastByOwner(userId);
+                bookings = bookingRepository.findPastByOwner(userId, afterStart, afterId, page.probe());
                 break;
             case FUTURE:
-                bookings = bookingRepository.findFutureByOwner(userId);
+                bookings = bookingRepository.findFutureByOwner(userId, afterStart, afterId, page.probe());
                 break;
             case WAITING:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
+                bookings = bookingRepository.findByOwnerAndStatus(userId, BookingStatus.WAITING,
+                        afterStart, afterId, page.probe());
                 break;
             case REJECTED:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
+                bookings = bookingRepository.findByOwnerAndStatus(userId, BookingStatus.REJECTED,
+                        afterStart, afterId, page.probe());
                 break;
             default:
-                bookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId);
+                bookings = bookingRepository.findAllByOwner(userId, afterStart, afterId, page.probe());
         }
 
+        return CursorPage.of(bookings, page, BookingServiceImpl::cursorOf, BookingResponseMapper::toBookingResponseDto);
+    }
+
+    /**
+     * Возвращает бронирования пользователя, созданные или изменённые после токена клиента, в порядке версий.
+     * Меняют бронирование только создание и решение владельца; переход между состояниями CURRENT, PAST
+     * и FUTURE со временем изменением не считается — клиент вычисляет состояние по датам сам.
+     *
+     * @param userId идентификатор пользователя (бронирующего)
+     * @param since  токен предыдущей синхронизации (без токена — все бронирования) и размер порции
+     * @return изменённые бронирования и токен для следующей синхронизации
+     * @throws NotFoundException если пользователь не найден
+     */
+    @Override
+    public ChangeSet<BookingResponseDto> getBookingChangesByBooker(Long userId, PageParams since) {
+        if (userRepository.findById(userId).isEmpty()) {
+            throw new NotFoundException("Пользователь не найден: " + userId);
+        }
+
+        long watermark = changeClock.watermark();
+        List<Booking> rows = bookingRepository.findChangedByBooker(userId, since.afterIdAscending(), watermark,
+                since.probe());
+        return ChangeSet.of(rows, since, Booking::getChangeVersion, BookingServiceImpl::toResponseDtos, watermark);
+    }
+
+    /**
+     * Возвращает бронирования вещей владельца, созданные или изменённые после токена клиента,
+     * в порядке версий. Как и у бронирующего, состояние по датам клиент вычисляет сам.
+     *
+     * @param userId идентификатор владельца
+     * @param since  токен предыдущей синхронизации (без токена — все бронирования) и размер порции
+     * @return изменённые бронирования и токен для следующей синхронизации
+     * @throws NotFoundException если пользователь не найден
+     */
+    @Override
+    public ChangeSet<BookingResponseDto> getBookingChangesForOwner(Long userId, PageParams since) {
+        if (userRepository.findById(userId).isEmpty()) {
+            throw new NotFoundException("Пользователь не найден: " + userId);
+        }
+
+        long watermark = changeClock.watermark();
+        List<Booking> rows = bookingRepository.findChangedByOwner(userId, since.afterIdAscending(), watermark,
+                since.probe());
+        return ChangeSet.of(rows, since, Booking::getChangeVersion, BookingServiceImpl::toResponseDtos, watermark);
+    }
+
+    private static List<BookingResponseDto> toResponseDtos(List<Booking> bookings) {
         return bookings.stream()
                 .map(BookingResponseMapper::toBookingResponseDto)
-                .collect(Collectors.toList());
+                .toList();
+    }
+
+    /**
+     * Выгружает все бронирования вещей владельца, передавая их по одному в {@code consumer}.
+     * Строки читаются из базы курсором, а контекст персистентности периодически очищается,
+     * поэтому расход памяти не зависит от количества бронирований.
+     *
+     * @param userId   идентификатор владельца
+     * @param state    фильтр по состоянию бронирования
+     * @param consumer получатель бронирований в порядке убывания даты начала
+     * @throws NotFoundException если пользователь не найден
+     */
+    @Override
+    public void exportBookingsForOwner(Long userId, BookingState state, Consumer<BookingResponseDto> consumer) {
+        if (userRepository.findById(userId).isEmpty()) {
+            throw new NotFoundException("Пользователь не найден: " + userId);
+        }
+
+        Predicate<Booking> filter = stateFilter(state, LocalDateTime.now());
+        long exported = 0;
+        long read = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamAllByOwner(userId)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+                if (filter.test(booking)) {
+                    consumer.accept(BookingResponseMapper.toBookingResponseDto(booking));
+                    exported++;
+                }
+                if (++read % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("Выгрузка бронирований владельца id = {}: состояние = {}, записей = {}", userId, state, exported);
+    }
+
+    private static Predicate<Booking> stateFilter(BookingState state, LocalDateTime now) {
+        return switch (state) {
+            case CURRENT -> b -> !b.getStart().isAfter(now) && !b.getEnd().isBefore(now);
+            case PAST -> b -> b.getEnd().isBefore(now);
+            case FUTURE -> b -> b.getStart().isAfter(now);
+            case WAITING -> b -> b.getStatus() == BookingStatus.WAITING;
+            case REJECTED -> b -> b.getStatus() == BookingStatus.REJECTED;
+            default -> b -> true;
+        };
+    }
+
+    /**
+     * Сбрасывает закэшированные списки бронирующего и владельца вещи после фиксации транзакции.
+     */
+    private void invalidateQueryCache(Booking booking) {
+        Long bookerId = booking.getBooker().getId();
+        Long ownerId = booking.getOwner().getId();
+        TransactionUtils.afterCommit(() -> {
+            queryCache.invalidate(BookingQueryCache.Role.BOOKER, bookerId);
+            queryCache.invalidate(BookingQueryCache.Role.OWNER, ownerId);
+        });
+    }
+
+    private static PageCursor cursorOf(Booking booking) {
+        return PageCursor.of(booking.getStart(), booking.getId());
     }
-}
\ No newline at end of file
+}
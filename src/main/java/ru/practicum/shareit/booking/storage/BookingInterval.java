@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.storage;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция бронирования, содержащая только его временной интервал.
+ */
+public interface BookingInterval {
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -1,49 +1,157 @@
 package ru.practicum.shareit.booking.storage;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.constants.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.stream.Stream;
+
+/**
+ * Списки бронирований отдаются постранично по ключу {@code (start, id)} в порядке убывания:
+ * {@code afterStart}/{@code afterId} — позиция последней записи предыдущей страницы,
+ * размер страницы задаётся через {@link Pageable}.
+ * Запросы для ответов API сразу подтягивают бронирующего и вещь, поэтому маппинг
+ * в {@code BookingResponseDto} не порождает дополнительных запросов.
+ * Запросы владельца фильтруют по {@code b.owner} (столбец {@code owner_id} в самой таблице бронирований),
+ * а не по владельцу вещи, чтобы не соединять бронирования с вещами до отбора страницы.
+ * Изменения для синхронизации отбираются по версии в диапазоне {@code (afterVersion, upToVersion]}
+ * в порядке возрастания версий.
+ */
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId);
-
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP ORDER BY b.start DESC")
-    List<Booking> findCurrentByBooker(Long userId);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.end < CURRENT_TIMESTAMP ORDER BY b.start DESC")
-    List<Booking> findPastByBooker(Long userId);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start > CURRENT_TIMESTAMP ORDER BY b.start DESC")
-    List<Booking> findFutureByBooker(Long userId);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP ORDER BY b.start DESC")
-    List<Booking> findCurrentByOwner(Long ownerId);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.end < CURRENT_TIMESTAMP ORDER BY b.start DESC")
-    List<Booking> findPastByOwner(Long ownerId);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.start > CURRENT_TIMESTAMP ORDER BY b.start DESC")
-    List<Booking> findFutureByOwner(Long ownerId);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.end < CURRENT_TIMESTAMP ORDER BY b.start DESC")
-    List<Booking> findLastBooking(@Param("itemId") Long itemId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.start > CURRENT_TIMESTAMP ORDER BY b.start ASC")
-    List<Booking> findNextBooking(@Param("itemId") Long itemId, Pageable pageable);
+    String SELECT_WITH_DETAILS = "SELECT b FROM Booking b JOIN FETCH b.booker JOIN FETCH b.item i";
+    String AFTER_CURSOR = " AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId))";
+    String ORDER_BY_START = " ORDER BY b.start DESC, b.id DESC";
+    String CHANGED_BETWEEN = " AND b.changeVersion > :afterVersion AND b.changeVersion <= :upToVersion"
+            + " ORDER BY b.changeVersion";
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :userId" + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findAllByBooker(Long userId, LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.owner.id = :ownerId" + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findAllByOwner(Long ownerId, LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :userId AND b.status = :status" + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findByBookerAndStatus(Long userId, BookingStatus status,
+                                        LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.owner.id = :ownerId AND b.status = :status" + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findByOwnerAndStatus(Long ownerId, BookingStatus status,
+                                       LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :userId AND b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP"
+            + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findCurrentByBooker(Long userId, LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :userId AND b.end < CURRENT_TIMESTAMP" + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findPastByBooker(Long userId, LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :userId AND b.start > CURRENT_TIMESTAMP" + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findFutureByBooker(Long userId, LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.owner.id = :ownerId AND b.start <= CURRENT_TIMESTAMP AND b.end >= CURRENT_TIMESTAMP"
+            + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findCurrentByOwner(Long ownerId, LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.owner.id = :ownerId AND b.end < CURRENT_TIMESTAMP" + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findPastByOwner(Long ownerId, LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.owner.id = :ownerId AND b.start > CURRENT_TIMESTAMP" + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findFutureByOwner(Long ownerId, LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.booker.id = :userId" + CHANGED_BETWEEN)
+    List<Booking> findChangedByBooker(Long userId, long afterVersion, long upToVersion, Pageable pageable);
+
+    @Query(SELECT_WITH_DETAILS + " WHERE b.owner.id = :ownerId" + CHANGED_BETWEEN)
+    List<Booking> findChangedByOwner(Long ownerId, long afterVersion, long upToVersion, Pageable pageable);
+
+    /**
+     * Все бронирования вещей владельца для потоковой выгрузки: строки читаются курсором порциями
+     * по {@code fetchSize}, не попадают в кэш второго уровня и не отслеживаются на изменения.
+     * Поток нужно читать внутри транзакции и закрыть после использования.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")
+    })
+    @Query(SELECT_WITH_DETAILS + " WHERE b.owner.id = :ownerId" + ORDER_BY_START)
+    Stream<Booking> streamAllByOwner(Long ownerId);
+
+    /**
+     * Ближайший момент после {@code now}, когда одно из бронирований пользователя начнётся или закончится,
+     * то есть изменится ответ для состояний CURRENT, PAST и FUTURE.
+     */
+    @Query("SELECT MIN(CASE WHEN b.start > :now THEN b.start ELSE b.end END) FROM Booking b " +
+            "WHERE b.booker.id = :userId AND b.end >= :now")
+    LocalDateTime findNextBoundaryForBooker(Long userId, LocalDateTime now);
+
+    @Query("SELECT MIN(CASE WHEN b.start > :now THEN b.start ELSE b.end END) FROM Booking b " +
+            "WHERE b.owner.id = :ownerId AND b.end >= :now")
+    LocalDateTime findNextBoundaryForOwner(Long ownerId, LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Optional<Booking> findWithDetailsById(Long id);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.end < :now ORDER BY b.start DESC")
+    List<Booking> findLastBooking(Long itemId, LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.start > :now ORDER BY b.start ASC")
+    List<Booking> findNextBooking(Long itemId, LocalDateTime now, Pageable pageable);
+
+    /**
+     * Ближайший момент после {@code now}, когда изменятся последнее или следующее бронирование вещи:
+     * начнётся или закончится одно из её бронирований.
+     */
+    @Query("SELECT MIN(CASE WHEN b.start > :now THEN b.start ELSE b.end END) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.end >= :now")
+    LocalDateTime findNextBoundaryForItem(Long itemId, LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.end < CURRENT_TIMESTAMP " +
+            "AND b.start = (SELECT MAX(p.start) FROM Booking p WHERE p.item.id = b.item.id AND p.end < CURRENT_TIMESTAMP)")
+    List<Booking> findLastBookings(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.start > CURRENT_TIMESTAMP " +
+            "AND b.start = (SELECT MIN(n.start) FROM Booking n WHERE n.item.id = b.item.id AND n.start > CURRENT_TIMESTAMP)")
+    List<Booking> findNextBookings(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Интервалы бронирований вещи в данных статусах, которые заканчиваются позже {@code endAfter}.
+     */
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :endAfter")
+    List<BookingInterval> findIntervalsByItem(Long itemId, Collection<BookingStatus> statuses, LocalDateTime endAfter);
+
+    /**
+     * Интервалы бронирований вещи в данных статусах, которые пересекаются с {@code [start, end)}
+     * и закончились не позже {@code endedBy}.
+     */
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses " +
+            "AND b.end > :start AND b.end <= :endedBy AND b.start < :end")
+    List<BookingInterval> findEndedIntervalsByItem(Long itemId, Collection<BookingStatus> statuses,
+                                                   LocalDateTime start, LocalDateTime end, LocalDateTime endedBy);
+
+    /**
+     * Есть ли у вещи бронирование в данных статусах, которое пересекается с {@code [start, end)}
+     * и закончилось не позже {@code endedBy}.
+     */
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.id = :itemId AND b.status IN :statuses " +
+            "AND b.end > :start AND b.end <= :endedBy AND b.start < :end")
+    boolean existsEndedOverlap(Long itemId, Collection<BookingStatus> statuses,
+                               LocalDateTime start, LocalDateTime end, LocalDateTime endedBy);
 
     boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long bookerId, BookingStatus status, LocalDateTime dateTime);
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.common.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.servlet.LogbookFilter;
+
+import java.util.Set;
+
+/**
+ * Регистрирует фильтр Logbook вместо автоконфигурации, чтобы не пропускать через него SSE-потоки.
+ * Logbook копит тело ответа до конца запроса, а SSE-соединение живёт десятки минут; кроме того, после
+ * отключения клиента фильтр пытается сбросить уже закрытый ответ и пишет ошибку в лог.
+ */
+@Configuration
+public class LogbookConfig {
+
+    private final Set<String> streamingPaths;
+
+    public LogbookConfig(@Value("${shareit.logbook.streaming-paths:}") Set<String> streamingPaths) {
+        this.streamingPaths = streamingPaths;
+    }
+
+    @Bean
+    public FilterRegistrationBean<Filter> logbookFilter(Logbook logbook) {
+        LogbookFilter logbookFilter = new LogbookFilter(logbook);
+        Filter filter = (request, response, chain) -> {
+            if (streamingPaths.contains(((HttpServletRequest) request).getRequestURI())) {
+                chain.doFilter(request, response);
+            } else {
+                logbookFilter.doFilter(request, response, chain);
+            }
+        };
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+        registration.setName("logbookFilter");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.common.exceptions;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -15,12 +17,17 @@ import java.util.Map;
 @RestControllerAdvice
 public class ExceptionControllerAdvice {
 
+    /**
+     * Ошибки всегда отдаются в JSON, даже если клиент запросил другой формат (например, NDJSON-выгрузку).
+     */
+    private static final HttpHeaders JSON_HEADERS = jsonHeaders();
+
     /**
      * 409 ERROR CODE
      */
     @ExceptionHandler(DuplicatedDataException.class)
     public ResponseEntity<ErrorResponse> handleDuplicatedDataException(DuplicatedDataException ex) {
-        return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.CONFLICT);
+        return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), JSON_HEADERS, HttpStatus.CONFLICT);
     }
 
     /**
@@ -28,7 +35,7 @@ public class ExceptionControllerAdvice {
      */
     @ExceptionHandler(NotAuthorizedException.class)
     public ResponseEntity<ErrorResponse> handleNotAuthorizedException(NotAuthorizedException ex) {
-        return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.FORBIDDEN);
+        return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), JSON_HEADERS, HttpStatus.FORBIDDEN);
     }
 
     /**
@@ -36,7 +43,7 @@ public class ExceptionControllerAdvice {
      */
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFoundException(NotFoundException ex) {
-        return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), JSON_HEADERS, HttpStatus.NOT_FOUND);
     }
 
     /**
@@ -44,7 +51,7 @@ public class ExceptionControllerAdvice {
      */
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(ValidationException ex) {
-        return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), JSON_HEADERS, HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -52,7 +59,7 @@ public class ExceptionControllerAdvice {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
-        return new ResponseEntity<>(new ErrorResponse("Unexpected error: " + ex.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR); // 500
+        return new ResponseEntity<>(new ErrorResponse("Unexpected error: " + ex.getMessage()), JSON_HEADERS, HttpStatus.INTERNAL_SERVER_ERROR); // 500
     }
 
     /**
@@ -64,7 +71,12 @@ public class ExceptionControllerAdvice {
         for (FieldError error : ex.getBindingResult().getFieldErrors()) {
             fieldErrors.put(error.getField(), error.getDefaultMessage());
         }
-        return new ResponseEntity<>(new ErrorResponse("Validation failed", fieldErrors), HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(new ErrorResponse("Validation failed", fieldErrors), JSON_HEADERS, HttpStatus.BAD_REQUEST);
     }
-}
 
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+}
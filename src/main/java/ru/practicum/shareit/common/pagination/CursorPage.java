@@ -0,0 +1,37 @@
+package ru.practicum.shareit.common.pagination;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница результатов и курсор следующей страницы ({@code null}, если страница последняя).
+ */
+@Getter
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Собирает страницу из выборки, запрошенной через {@link PageParams#probe()}.
+     *
+     * @param rows     выборка размером до {@code limit + 1}
+     * @param params   параметры страницы
+     * @param cursorOf курсор для строки
+     * @param mapper   преобразование строки в элемент ответа
+     */
+    public static <R, T> CursorPage<T> of(List<R> rows, PageParams params,
+                                          Function<R, PageCursor> cursorOf, Function<R, T> mapper) {
+        boolean hasNext = rows.size() > params.getLimit();
+        List<R> page = hasNext ? rows.subList(0, params.getLimit()) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.common.pagination;
+
+import lombok.Getter;
+import ru.practicum.shareit.common.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция последней отданной записи для постраничной выдачи по ключу.
+ * Состоит из значения сортировочного ключа и идентификатора записи, который разрешает равенство ключей.
+ * Клиенту передаётся в виде непрозрачного токена.
+ */
+@Getter
+public class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String key;
+    private final long id;
+
+    private PageCursor(String key, long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static PageCursor of(long id) {
+        return new PageCursor("", id);
+    }
+
+    public static PageCursor of(LocalDateTime key, long id) {
+        return new PageCursor(key.toString(), id);
+    }
+
+    public static PageCursor of(int key, long id) {
+        return new PageCursor(Integer.toString(key), id);
+    }
+
+    public LocalDateTime keyAsDateTime() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор");
+        }
+    }
+
+    public int keyAsInt() {
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Некорректный курсор");
+        }
+    }
+
+    public String encode() {
+        String raw = key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разбирает токен, полученный от клиента.
+     *
+     * @throws ValidationException если токен повреждён
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationException("Некорректный курсор");
+            }
+            return new PageCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Некорректный курсор");
+        }
+    }
+}
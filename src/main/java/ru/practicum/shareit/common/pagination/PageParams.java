@@ -0,0 +1,64 @@
+package ru.practicum.shareit.common.pagination;
+
+import lombok.Getter;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.exceptions.ValidationException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры запроса страницы: курсор, после которого продолжается выдача, и размер страницы.
+ */
+@Getter
+public class PageParams {
+
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Верхняя граница для выдачи по убыванию времени, когда курсор не передан.
+     */
+    public static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final PageCursor after;
+    private final int limit;
+
+    private PageParams(PageCursor after, int limit) {
+        this.after = after;
+        this.limit = limit;
+    }
+
+    /**
+     * @param after токен курсора или {@code null} для первой страницы
+     * @param limit размер страницы
+     * @throws ValidationException если лимит вне допустимого диапазона или курсор повреждён
+     */
+    public static PageParams of(String after, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("Лимит должен быть от 1 до " + MAX_LIMIT);
+        }
+        return new PageParams(after == null || after.isBlank() ? null : PageCursor.decode(after), limit);
+    }
+
+    public boolean hasCursor() {
+        return after != null;
+    }
+
+    /**
+     * Запрашивает на одну запись больше страницы, чтобы узнать, есть ли следующая.
+     */
+    public Pageable probe() {
+        return Pageable.ofSize(limit + 1);
+    }
+
+    public long afterIdAscending() {
+        return hasCursor() ? after.getId() : 0L;
+    }
+
+    public LocalDateTime afterTimeDescending() {
+        return hasCursor() ? after.keyAsDateTime() : LATEST;
+    }
+
+    public long afterIdDescending() {
+        return hasCursor() ? after.getId() : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.common.pagination;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+public class PageResponses {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Возвращает элементы страницы в теле ответа, а курсор следующей страницы — в заголовке
+     * {@value #NEXT_CURSOR_HEADER}. Тело остаётся массивом, как и до введения пагинации.
+     */
+    public static <T> ResponseEntity<List<T>> ok(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return builder.body(page.getItems());
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.common.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Map;
+
+/**
+ * Открывает счётчик SQL-запросов на время обработки запроса контроллером и по завершении
+ * сверяет результат с бюджетом обработчика.
+ * <p>
+ * Метрики с тегом {@code endpoint} ({@code Контроллер.метод}):
+ * {@code sql.statements.per.request} — распределение числа запросов,
+ * {@code sql.budget.exceeded} — запросы сверх бюджета,
+ * {@code sql.statements.repeated} — запросы с повторяющимся SQL (признак N+1).
+ */
+@Slf4j
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlBudgetInterceptor(SqlBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (properties.getMode() == SqlBudgetProperties.Mode.OFF || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        String endpoint = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        SqlStatementCounter.open(endpoint, properties.budgetFor(endpoint),
+                properties.getMode() == SqlBudgetProperties.Mode.FAIL);
+        return true;
+    }
+
+    /**
+     * Асинхронный ответ (например, потоковая выгрузка) пишется в другом потоке и не учитывается,
+     * поэтому счётчик просто снимается с потока запроса.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        SqlStatementCounter.close();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SqlStatementCounter.RequestStatements statements = SqlStatementCounter.close();
+        if (statements == null) {
+            return;
+        }
+
+        String endpoint = statements.endpoint();
+        DistributionSummary.builder("sql.statements.per.request")
+                .description("Число SQL-запросов на один HTTP-запрос")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements.total());
+
+        if (statements.total() > statements.budget()) {
+            Counter.builder("sql.budget.exceeded")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Превышен бюджет SQL-запросов: {} выполнил {} при бюджете {}",
+                    endpoint, statements.total(), statements.budget());
+        }
+
+        Map<String, Integer> repeated = statements.repeated(properties.getRepeatThreshold());
+        if (!repeated.isEmpty()) {
+            Counter.builder("sql.statements.repeated")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+            repeated.forEach((sql, count) ->
+                    log.warn("Возможный N+1: {} выполнил один и тот же запрос {} раз: {}", endpoint, count, sql));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.common.sql;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Бюджет SQL-запросов на один HTTP-запрос.
+ * <p>
+ * Ключ в {@link #endpoints} — обработчик в виде {@code Контроллер.метод},
+ * например {@code shareit.sql-budget.endpoints.[BookingController.getBookingsForOwner]=3}.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit.sql-budget")
+public class SqlBudgetProperties {
+
+    public enum Mode {
+        /**
+         * Запросы не считаются.
+         */
+        OFF,
+        /**
+         * Превышение бюджета пишется в лог и в метрику {@code sql.budget.exceeded}.
+         */
+        WARN,
+        /**
+         * Запрос, превысивший бюджет, прерывается с {@code SqlBudgetExceededException}. Для тестов.
+         */
+        FAIL
+    }
+
+    private Mode mode = Mode.WARN;
+
+    /**
+     * Бюджет для обработчиков, не перечисленных в {@link #endpoints}.
+     */
+    private int defaultBudget = 10;
+
+    /**
+     * Сколько раз один и тот же SQL должен повториться за запрос, чтобы считаться признаком N+1.
+     */
+    private int repeatThreshold = 3;
+
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int budgetFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultBudget);
+    }
+}
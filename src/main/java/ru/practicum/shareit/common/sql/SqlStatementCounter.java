@@ -0,0 +1,130 @@
+package ru.practicum.shareit.common.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import ru.practicum.shareit.common.exceptions.SqlBudgetExceededException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Считает SQL-запросы, которые Hibernate выполняет в рамках текущего HTTP-запроса.
+ * <p>
+ * Счётчик привязан к потоку: его открывает {@link SqlBudgetInterceptor} перед вызовом обработчика
+ * и закрывает после завершения запроса. Запросы вне HTTP-запроса (прогрев индексов, фоновые задачи,
+ * потоковые ответы в отдельном потоке) не учитываются. Задачи, которые запрос запускает в других потоках
+ * и ждёт, подключаются к его счётчику через {@link #propagate(Supplier)}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.record(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Оборачивает задачу так, чтобы её SQL-запросы учитывались в счётчике текущего HTTP-запроса,
+     * в каком бы потоке она ни выполнялась. Вне HTTP-запроса возвращает задачу без изменений.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        RequestStatements statements = CURRENT.get();
+        if (statements == null) {
+            return task;
+        }
+        return () -> {
+            CURRENT.set(statements);
+            try {
+                return task.get();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    static RequestStatements open(String endpoint, int budget, boolean failOnExceed) {
+        RequestStatements statements = new RequestStatements(endpoint, budget, failOnExceed);
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    static RequestStatements close() {
+        RequestStatements statements = CURRENT.get();
+        CURRENT.remove();
+        return statements;
+    }
+
+    /**
+     * Запросы одного HTTP-запроса; записываются из потока запроса и из запущенных им задач.
+     */
+    static final class RequestStatements {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final String endpoint;
+        private final int budget;
+        private final boolean failOnExceed;
+        private final Map<String, Integer> counts = new HashMap<>();
+        private int total;
+
+        private RequestStatements(String endpoint, int budget, boolean failOnExceed) {
+            this.endpoint = endpoint;
+            this.budget = budget;
+            this.failOnExceed = failOnExceed;
+        }
+
+        private void record(String sql) {
+            int recorded;
+            lock.lock();
+            try {
+                recorded = ++total;
+                counts.merge(sql, 1, Integer::sum);
+            } finally {
+                lock.unlock();
+            }
+            if (failOnExceed && recorded > budget) {
+                throw new SqlBudgetExceededException("Превышен бюджет SQL-запросов для " + endpoint
+                        + ": " + recorded + " > " + budget + ", запрос: " + sql);
+            }
+        }
+
+        String endpoint() {
+            return endpoint;
+        }
+
+        int budget() {
+            return budget;
+        }
+
+        int total() {
+            lock.lock();
+            try {
+                return total;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Запросы, повторившиеся не меньше {@code threshold} раз, с числом повторов.
+         */
+        Map<String, Integer> repeated(int threshold) {
+            Map<String, Integer> repeated = new HashMap<>();
+            lock.lock();
+            try {
+                counts.forEach((sql, count) -> {
+                    if (count >= threshold) {
+                        repeated.put(sql, count);
+                    }
+                });
+            } finally {
+                lock.unlock();
+            }
+            return repeated;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.common.sse;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Канал SSE-потока: кольцевой буфер последних событий одного ключа и его подписчики.
+ * <p>
+ * Публикация не берёт блокировок и не копирует событие подписчикам: она получает номер события,
+ * записывает событие в ячейку буфера и будит подписчиков. Каждый подписчик сам читает буфер
+ * от своего курсора, поэтому медленный клиент не задерживает ни публикацию, ни остальных.
+ * Переподключившийся клиент продолжает чтение с {@code Last-Event-ID}; если часть пропущенного
+ * уже перезаписана или случилась до создания канала, он получает событие {@value #RESET_EVENT}
+ * и должен перечитать состояние обычными запросами.
+ * <p>
+ * Номера событий канала идут подряд и начинаются с времени создания канала в микросекундах.
+ * Поэтому номер из прошлого экземпляра канала (удалённого за простой или до перезапуска приложения)
+ * меньше номеров нового, и клиент получает {@code reset}, а не теряет события молча.
+ */
+class SseChannel {
+
+    static final String RESET_EVENT = "reset";
+
+    private final AtomicReferenceArray<SseEvent> recent;
+    private final long createdAfterId;
+    private final AtomicLong lastId;
+    private final List<SseSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private volatile long idleSince;
+
+    SseChannel(int replaySize) {
+        this.recent = new AtomicReferenceArray<>(replaySize);
+        this.createdAfterId = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.lastId = new AtomicLong(createdAfterId);
+        this.idleSince = System.nanoTime();
+    }
+
+    void publish(String name, String data) {
+        SseEvent event = new SseEvent(lastId.incrementAndGet(), name, data);
+        // Публикация, задержавшаяся дольше, чем буфер успел обернуться, не затирает более новое событие
+        recent.accumulateAndGet(slot(event.id()), event,
+                (current, published) -> current == null || current.id() < published.id() ? published : current);
+        for (SseSubscriber subscriber : subscribers) {
+            subscriber.wakeUp();
+        }
+    }
+
+    /**
+     * Подключает подписчика. Чтение начинается после {@code lastEventId}, а для нового клиента —
+     * с текущего конца буфера.
+     *
+     * @param lastEventId номер последнего полученного клиентом события или {@code null} для нового клиента
+     * @return {@code true}, если пропущенное дочитать нельзя и клиенту отправлен {@value #RESET_EVENT}
+     */
+    boolean subscribe(SseSubscriber subscriber, Long lastEventId) {
+        long head = lastId.get();
+        boolean reset = lastEventId != null
+                && (lastEventId < createdAfterId || lastEventId < head - recent.length() || lastEventId > head);
+        subscriber.start(lastEventId == null || reset ? head : lastEventId, reset);
+        subscriber.onClose(() -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        subscriber.wakeUp();
+        return reset;
+    }
+
+    /**
+     * @return событие из ячейки буфера для номера {@code id}: само это событие, более старое
+     * (событие ещё не записано) или более новое (событие уже перезаписано)
+     */
+    SseEvent eventAt(long id) {
+        return recent.get(slot(id));
+    }
+
+    long lastId() {
+        return lastId.get();
+    }
+
+    void heartbeat() {
+        for (SseSubscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    /**
+     * @return {@code true}, если у канала нет подписчиков с момента {@code cutoffNanos} или раньше
+     */
+    boolean isIdleSince(long cutoffNanos) {
+        return subscribers.isEmpty() && idleSince - cutoffNanos <= 0;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Сумма неотправленных событий всех подписчиков.
+     */
+    long backlog() {
+        long head = lastId.get();
+        long backlog = 0;
+        for (SseSubscriber subscriber : subscribers) {
+            backlog += subscriber.backlog(head);
+        }
+        return backlog;
+    }
+
+    private int slot(long id) {
+        return (int) Math.floorMod(id, (long) recent.length());
+    }
+
+    private void unsubscribe(SseSubscriber subscriber) {
+        if (subscribers.remove(subscriber) && subscribers.isEmpty()) {
+            idleSince = System.nanoTime();
+        }
+    }
+}
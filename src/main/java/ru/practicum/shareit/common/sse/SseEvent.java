@@ -0,0 +1,12 @@
+package ru.practicum.shareit.common.sse;
+
+/**
+ * Событие SSE-потока. Данные сериализуются в JSON один раз при публикации
+ * и отправляются всем подписчикам без повторной сериализации.
+ *
+ * @param id   номер события, растёт в пределах потока; клиент возвращает его в {@code Last-Event-ID}
+ * @param name имя события ({@code event:})
+ * @param data данные события в JSON
+ */
+record SseEvent(long id, String name, String data) {
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.common.sse;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки SSE-потоков.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit.sse")
+public class SseProperties {
+
+    /**
+     * Сколько последних событий канала хранится для переподключения с {@code Last-Event-ID}.
+     * Столько же событий может накопиться неотправленными у подписчика, который не успевает читать;
+     * при большем отставании он получает {@code reset}.
+     */
+    private int replaySize = 64;
+
+    /**
+     * Сколько хранится канал без подписчиков, чтобы переподключившийся клиент получил пропущенное.
+     */
+    private Duration replayTtl = Duration.ofMinutes(5);
+
+    /**
+     * Интервал комментариев-пульсов: они не дают прокси закрыть молчащее соединение
+     * и выявляют отключившихся клиентов.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Время жизни одного соединения, после которого клиент переподключается.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Пауза перед переподключением, которую сервер советует клиенту ({@code retry:}).
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+}
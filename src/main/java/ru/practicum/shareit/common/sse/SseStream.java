@@ -0,0 +1,126 @@
+package ru.practicum.shareit.common.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.common.exceptions.ValidationException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * SSE-поток с отдельным каналом на каждый ключ, например на пользователя; у широковещательного потока
+ * ключ один. Создаётся через {@link SseStreams}.
+ * <p>
+ * Канал появляется при первой подписке и хранит последние события ключа для переподключения. События для ключа
+ * без канала никто не ждёт, и они не сохраняются. Канал без подписчиков удаляется через
+ * {@code shareit.sse.replay-ttl}. Каналы хранятся в памяти, так что клиент получает события
+ * только своего экземпляра приложения.
+ */
+public class SseStream<K> {
+
+    private final SseProperties properties;
+    private final Executor executor;
+    private final ObjectMapper objectMapper;
+    private final Map<K, SseChannel> channels = new ConcurrentHashMap<>();
+    private final Counter overflows;
+    private final Counter resets;
+
+    SseStream(String name, SseProperties properties, Executor executor, ObjectMapper objectMapper,
+              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.overflows = Counter.builder("sse.subscribers.overflow")
+                .description("Подписчики, отставшие больше чем на буфер канала")
+                .tag("stream", name)
+                .register(meterRegistry);
+        this.resets = Counter.builder("sse.replay.reset")
+                .description("Переподключения, для которых пропущенные события уже недоступны")
+                .tag("stream", name)
+                .register(meterRegistry);
+        Gauge.builder("sse.subscribers", channels,
+                        c -> c.values().stream().mapToInt(SseChannel::subscriberCount).sum())
+                .description("Открытые SSE-соединения")
+                .tag("stream", name)
+                .register(meterRegistry);
+        Gauge.builder("sse.backlog", channels,
+                        c -> c.values().stream().mapToLong(SseChannel::backlog).sum())
+                .description("Опубликованные, но ещё не отправленные подписчикам события")
+                .tag("stream", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Открывает соединение для ключа.
+     *
+     * @param lastEventId значение заголовка {@code Last-Event-ID} или {@code null}
+     * @throws ValidationException если {@code lastEventId} не является номером события
+     */
+    public SseEmitter subscribe(K key, String lastEventId) {
+        Long after = parseLastEventId(lastEventId);
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        // Подписка под блокировкой записи карты не пересекается с удалением простаивающего канала
+        channels.compute(key, (k, channel) -> {
+            if (channel == null) {
+                channel = new SseChannel(properties.getReplaySize());
+            }
+            SseSubscriber subscriber = new SseSubscriber(emitter, channel, executor,
+                    properties.getReconnectDelay().toMillis());
+            subscriber.onOverflow(overflows::increment);
+            if (channel.subscribe(subscriber, after)) {
+                resets.increment();
+            }
+            return channel;
+        });
+        return emitter;
+    }
+
+    /**
+     * Отправляет событие подписчикам ключа. Не берёт блокировок и не ждёт сети: событие записывается
+     * в буфер канала, а подписчики читают его сами.
+     * <p>
+     * Событие, опубликованное в канал, который в этот момент удаляется за простой, теряется. Подписчиков
+     * у такого канала нет, а вернувшийся клиент попадёт в новый канал и получит {@code reset}.
+     */
+    public void publish(K key, String eventName, Object data) {
+        SseChannel channel = channels.get(key);
+        if (channel != null) {
+            channel.publish(eventName, toJson(data));
+        }
+    }
+
+    /**
+     * Отправляет пульс подписчикам и удаляет каналы, у которых давно нет подписчиков.
+     */
+    void heartbeat() {
+        long cutoff = System.nanoTime() - properties.getReplayTtl().toNanos();
+        channels.forEach((key, channel) -> {
+            channel.heartbeat();
+            channels.computeIfPresent(key, (k, c) -> c.isIdleSince(cutoff) ? null : c);
+        });
+    }
+
+    private String toJson(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие: " + data, e);
+        }
+    }
+
+    private static Long parseLastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Некорректный Last-Event-ID: " + lastEventId);
+        }
+    }
+}
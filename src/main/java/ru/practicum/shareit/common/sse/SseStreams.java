@@ -0,0 +1,50 @@
+package ru.practicum.shareit.common.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Создаёт SSE-потоки и обслуживает их: рассылает пульсы и удаляет неиспользуемые каналы.
+ * События отправляются задачами в {@code applicationTaskExecutor} (на виртуальных потоках, если они включены).
+ */
+@Component
+public class SseStreams {
+
+    private final SseProperties properties;
+    private final AsyncTaskExecutor executor;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final List<SseStream<?>> streams = new CopyOnWriteArrayList<>();
+
+    public SseStreams(SseProperties properties,
+                      @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                      ObjectMapper objectMapper,
+                      MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param name имя потока для тега {@code stream} метрик
+     */
+    public <K> SseStream<K> create(String name) {
+        SseStream<K> stream = new SseStream<>(name, properties, executor, objectMapper, meterRegistry);
+        streams.add(stream);
+        return stream;
+    }
+
+    @Scheduled(fixedRateString = "${shareit.sse.heartbeat-interval:PT15S}",
+            initialDelayString = "${shareit.sse.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        streams.forEach(SseStream::heartbeat);
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.common.sse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Соединение одного клиента с курсором в буфере канала.
+ * <p>
+ * Публикация только будит подписчика и не ждёт сети. Отправку выполняет задача в исполнителе,
+ * не больше одной на подписчика одновременно: она читает события канала после курсора, пока они есть.
+ * Пока отправлять нечего, поток подписчику не нужен. Отставание подписчика ограничено размером буфера:
+ * если буфер обернулся раньше, чем клиент прочитал событие, клиент получает {@value SseChannel#RESET_EVENT}
+ * и продолжает с конца буфера.
+ */
+@Slf4j
+class SseSubscriber {
+
+    private final SseEmitter emitter;
+    private final SseChannel channel;
+    private final Executor executor;
+    private final long reconnectDelayMillis;
+
+    /**
+     * Номер последнего отправленного события. Меняет только отправляющая задача, публикация читает его,
+     * чтобы оценить отставание.
+     */
+    private volatile long cursor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final AtomicBoolean heartbeatRequested = new AtomicBoolean(true);
+    private final AtomicBoolean closed = new AtomicBoolean();
+    /**
+     * Меняются только отправляющей задачей; задачи одного подписчика упорядочены флагом {@link #draining}.
+     */
+    private boolean resetPending;
+    private boolean reconnectDelaySent;
+    private volatile Runnable onClose = () -> {
+    };
+    private volatile Runnable onOverflow = () -> {
+    };
+
+    SseSubscriber(SseEmitter emitter, SseChannel channel, Executor executor, long reconnectDelayMillis) {
+        this.emitter = emitter;
+        this.channel = channel;
+        this.executor = executor;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(this::close);
+        emitter.onError(e -> close());
+    }
+
+    /**
+     * Задаёт начальное положение курсора. Вызывается до подключения к каналу.
+     *
+     * @param reset отправить клиенту событие {@value SseChannel#RESET_EVENT}
+     */
+    void start(long cursor, boolean reset) {
+        this.cursor = cursor;
+        this.resetPending = reset;
+    }
+
+    /**
+     * Сообщает о новых событиях канала.
+     */
+    void wakeUp() {
+        if (!closed.get()) {
+            scheduleDrain();
+        }
+    }
+
+    void heartbeat() {
+        if (!closed.get()) {
+            heartbeatRequested.set(true);
+            scheduleDrain();
+        }
+    }
+
+    long backlog(long lastId) {
+        return Math.max(0, lastId - cursor);
+    }
+
+    void onClose(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    void onOverflow(Runnable onOverflow) {
+        this.onOverflow = onOverflow;
+    }
+
+    private void scheduleDrain() {
+        pending.set(true);
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!closed.get() && pending.getAndSet(false)) {
+                if (heartbeatRequested.getAndSet(false)) {
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+                sendAvailable();
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("SSE-клиент отключился: {}", e.getMessage());
+            close();
+        } finally {
+            draining.set(false);
+        }
+        // Пробуждение между последней проверкой и сбросом флага обработает новая задача
+        if (pending.get() && !closed.get() && draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void sendAvailable() throws IOException {
+        while (!closed.get()) {
+            if (resetPending) {
+                resetPending = false;
+                send(SseEmitter.event().id(Long.toString(cursor)).name(SseChannel.RESET_EVENT).data("{}"));
+            }
+            long next = cursor + 1;
+            SseEvent event = channel.eventAt(next);
+            if (event == null || event.id() < next) {
+                return;
+            }
+            if (event.id() > next) {
+                // Буфер обернулся раньше, чем событие успели отправить
+                log.debug("SSE-подписчик отстал больше чем на размер буфера, пропущенное заменяется событием reset");
+                onOverflow.run();
+                cursor = channel.lastId();
+                resetPending = true;
+                continue;
+            }
+            send(SseEmitter.event()
+                    .id(Long.toString(event.id()))
+                    .name(event.name())
+                    .data(event.data(), MediaType.APPLICATION_JSON));
+            cursor = next;
+        }
+    }
+
+    private void send(SseEmitter.SseEventBuilder builder) throws IOException {
+        if (!reconnectDelaySent) {
+            builder.reconnectTime(reconnectDelayMillis);
+            reconnectDelaySent = true;
+        }
+        emitter.send(builder);
+    }
+
+    private boolean close() {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        onClose.run();
+        return true;
+    }
+}
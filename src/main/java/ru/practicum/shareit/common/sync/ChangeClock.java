@@ -0,0 +1,112 @@
+package ru.practicum.shareit.common.sync;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Выдаёт версии изменений ({@code change_version}) для синхронизации «изменения после токена»
+ * и определяет, до какой версии изменения уже можно отдавать.
+ * <p>
+ * Версия присваивается строке внутри транзакции записи, а транзакции фиксируются не в порядке версий:
+ * пока транзакция с версией 10 не завершена, читатель может увидеть уже зафиксированную версию 11,
+ * и клиент с токеном 11 навсегда пропустил бы версию 10. Поэтому часы помнят версии незавершённых
+ * транзакций, а выборка изменений ограничена {@link #watermark()}.
+ * <p>
+ * Счётчик живёт в памяти и при запуске продолжает наибольшую версию в базе, поэтому, как и расписания
+ * бронирований, рассчитан на один экземпляр приложения.
+ */
+@Slf4j
+@Component
+public class ChangeClock {
+
+    /**
+     * Таблицы со столбцом {@code change_version}.
+     */
+    private static final List<String> TABLES = List.of("items", "bookings");
+
+    private final EntityManager entityManager;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private long lastIssued;
+    private long lastCommitted;
+
+    public ChangeClock(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @PostConstruct
+    void warmUp() {
+        long last = 0;
+        for (String table : TABLES) {
+            Number max = (Number) entityManager
+                    .createNativeQuery("SELECT COALESCE(MAX(change_version), 0) FROM " + table)
+                    .getSingleResult();
+            last = Math.max(last, max.longValue());
+        }
+        lastIssued = last;
+        lastCommitted = last;
+        log.info("Часы изменений запущены: последняя версия = {}", last);
+    }
+
+    /**
+     * Выдаёт следующую версию для строки, изменяемой в текущей транзакции.
+     * Версия считается незавершённой, пока транзакция не зафиксирована или не откачена.
+     *
+     * @throws IllegalStateException если активной транзакции нет
+     */
+    public long next() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Версия изменения выдаётся только внутри транзакции");
+        }
+        long version;
+        lock.lock();
+        try {
+            version = ++lastIssued;
+            inFlight.add(version);
+        } finally {
+            lock.unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(version, status == STATUS_COMMITTED);
+            }
+        });
+        return version;
+    }
+
+    /**
+     * Наибольшая версия, до которой все транзакции уже завершены и которая не больше последней
+     * зафиксированной. Строки с версией не больше неё видны любому запросу, начатому после вызова,
+     * а токен, равный ей, остаётся верным и после перезапуска приложения.
+     */
+    public long watermark() {
+        lock.lock();
+        try {
+            return inFlight.isEmpty() ? lastCommitted : Math.min(lastCommitted, inFlight.first() - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void complete(long version, boolean committed) {
+        lock.lock();
+        try {
+            inFlight.remove(version);
+            if (committed) {
+                lastCommitted = Math.max(lastCommitted, version);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.common.sync;
+
+import lombok.Getter;
+import ru.practicum.shareit.common.pagination.PageCursor;
+import ru.practicum.shareit.common.pagination.PageParams;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Изменения после токена клиента: сущности, созданные или изменённые после него, в порядке версий,
+ * и токен для следующего запроса. Если {@code hasMore}, отдана только часть изменений, и клиент
+ * сразу запрашивает следующую порцию с новым токеном.
+ */
+@Getter
+public class ChangeSet<T> {
+
+    private final List<T> changed;
+    private final String token;
+    private final boolean hasMore;
+
+    public ChangeSet(List<T> changed, String token, boolean hasMore) {
+        this.changed = changed;
+        this.token = token;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Собирает ответ из выборки, запрошенной через {@link PageParams#probe()} с версиями
+     * от токена до {@code watermark}.
+     *
+     * @param rows      выборка размером до {@code limit + 1} в порядке возрастания версий
+     * @param params    токен клиента и размер порции
+     * @param versionOf версия строки
+     * @param mapper    преобразование строк порции в элементы ответа
+     * @param watermark верхняя граница версий выборки ({@link ChangeClock#watermark()})
+     */
+    public static <R, T> ChangeSet<T> of(List<R> rows, PageParams params, ToLongFunction<R> versionOf,
+                                         Function<List<R>, List<T>> mapper, long watermark) {
+        boolean hasMore = rows.size() > params.getLimit();
+        List<R> page = hasMore ? rows.subList(0, params.getLimit()) : rows;
+        // Без продолжения токен сдвигается до границы выборки: версии чужих строк ниже неё клиенту не нужны
+        long version = hasMore ? versionOf.applyAsLong(page.get(page.size() - 1))
+                : Math.max(watermark, params.afterIdAscending());
+        return new ChangeSet<>(mapper.apply(page), PageCursor.of(version).encode(), hasMore);
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.common.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtils {
+
+    /**
+     * Выполняет действие после успешной фиксации текущей транзакции.
+     * Если активной транзакции нет, действие выполняется сразу.
+     *
+     * @param action действие, которое должно увидеть только зафиксированные данные
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Выполняет действие после завершения текущей транзакции, как фиксацией, так и откатом.
+     * Если активной транзакции нет, действие выполняется сразу.
+     *
+     * @param action действие
+     */
+    public static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Выполняет действие, если текущая транзакция будет откачена.
+     * Используется, чтобы отменить изменения в памяти, сделанные до фиксации транзакции.
+     * Если активной транзакции нет, действие не выполняется.
+     *
+     * @param action компенсирующее действие
+     */
+    public static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
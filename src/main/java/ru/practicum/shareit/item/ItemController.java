@@ -2,12 +2,22 @@ package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.config.JacksonConfig;
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageParams;
+import ru.practicum.shareit.common.pagination.PageResponses;
+import ru.practicum.shareit.common.sync.ChangeSet;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchEntryDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -46,18 +56,58 @@ public class ItemController {
         return ResponseEntity.ok(dto);
     }
 
+    @GetMapping("/batch")
+    public ResponseEntity<List<ItemBatchEntryDto>> getItemsBatch(@RequestHeader(USER_HEADER) Long userId,
+                                                                 @RequestParam List<Long> ids) {
+        log.info("ItemController getItemsBatch: userId = {}, ids = {}", userId, ids.size());
+        List<ItemBatchEntryDto> entries = itemService.getItemsByIds(userId, ids);
+        return ResponseEntity.ok(entries);
+    }
+
     @GetMapping
-    public ResponseEntity<List<ItemDto>> getOwnerItems(@RequestHeader(USER_HEADER) Long userId) {
-        log.info("ItemController getOwnerItems: userId = {}", userId);
-        List<ItemDto> list = itemService.getItemsByOwner(userId);
-        return ResponseEntity.ok(list);
+    public ResponseEntity<List<ItemDto>> getOwnerItems(@RequestHeader(USER_HEADER) Long userId,
+                                                       @RequestParam(required = false) String after,
+                                                       @RequestParam(defaultValue = "100") int limit) {
+        log.info("ItemController getOwnerItems: userId = {}, after = {}, limit = {}", userId, after, limit);
+        CursorPage<ItemDto> page = itemService.getItemsByOwner(userId, PageParams.of(after, limit));
+        return PageResponses.ok(page);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeSet<ItemDto>> getOwnerItemChanges(@RequestHeader(USER_HEADER) Long userId,
+                                                                  @RequestParam(required = false) String since,
+                                                                  @RequestParam(defaultValue = "100") int limit) {
+        log.info("ItemController getOwnerItemChanges: userId = {}, since = {}, limit = {}", userId, since, limit);
+        ChangeSet<ItemDto> changes = itemService.getItemChangesByOwner(userId, PageParams.of(since, limit));
+        return ResponseEntity.ok(changes);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam(name = "text", required = false) String text) {
-        log.info("ItemController searchItems: text = {}", text);
-        List<ItemDto> result = itemService.searchItems(text);
-        return ResponseEntity.ok(result);
+    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam(name = "text", required = false) String text,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(defaultValue = "100") int limit) {
+        log.info("ItemController searchItems: text = {}, after = {}, limit = {}", text, after, limit);
+        CursorPage<ItemDto> page = itemService.searchItems(text, PageParams.of(after, limit));
+        return PageResponses.ok(page);
+    }
+
+    @GetMapping("/{itemId}/matching-requests")
+    public ResponseEntity<List<RequestMatchDto>> getMatchingRequests(@RequestHeader(USER_HEADER) Long userId,
+                                                                     @PathVariable Long itemId,
+                                                                     @RequestParam(defaultValue = "10") int limit) {
+        log.info("ItemController getMatchingRequests: userId = {}, itemId = {}, limit = {}", userId, itemId, limit);
+        List<RequestMatchDto> matches = itemService.getMatchingRequests(userId, itemId, limit);
+        return ResponseEntity.ok(matches);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<ItemAvailabilityDto> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = JacksonConfig.DATE_TIME_PATTERN) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = JacksonConfig.DATE_TIME_PATTERN) LocalDateTime to) {
+        log.info("ItemController getAvailability: itemId = {}, from = {}, to = {}", itemId, from, to);
+        ItemAvailabilityDto availability = itemService.getAvailability(itemId, from, to);
+        return ResponseEntity.ok(availability);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Элемент ответа пакетного запроса вещей: запрошенный идентификатор, признак того, найдена ли вещь,
+ * и сама вещь (только для найденных).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemBatchEntryDto {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND
+    }
+
+    private Long id;
+    private Status status;
+    private ItemDto item;
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -37,4 +38,11 @@ public class ItemDto {
     private BookingInfoDto nextBooking;
 
     private List<CommentDto> comments;
+
+    /**
+     * Части карточки вещи, которые не загрузились вовремя и отданы пустыми: {@code comments}, {@code bookings}.
+     * В полном ответе поле отсутствует.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> missingParts;
 }
@@ -3,13 +3,19 @@ package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.schedule.ItemSchedule;
+import ru.practicum.shareit.booking.schedule.Timeline;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -49,6 +55,27 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemAvailabilityDto toAvailabilityDto(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                        Timeline timeline) {
+        long windowStart = ItemSchedule.toEpochMilli(from);
+        long windowEnd = ItemSchedule.toEpochMilli(to);
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(toTimeSlotDtos(timeline.busy(windowStart, windowEnd)))
+                .free(toTimeSlotDtos(timeline.free(windowStart, windowEnd)))
+                .build();
+    }
+
+    private static List<TimeSlotDto> toTimeSlotDtos(List<Timeline.Slot> slots) {
+        List<TimeSlotDto> result = new ArrayList<>(slots.size());
+        for (Timeline.Slot slot : slots) {
+            result.add(new TimeSlotDto(ItemSchedule.toDateTime(slot.start()), ItemSchedule.toDateTime(slot.end())));
+        }
+        return result;
+    }
+
     public static Item toItem(ItemDto dto, User owner, ItemRequest request) {
         if (dto == null) return null;
         return Item.builder()
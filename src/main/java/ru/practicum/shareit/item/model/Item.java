@@ -2,11 +2,15 @@ package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Table(name = "ITEMS")
 @Getter
 @Setter
@@ -36,4 +40,10 @@ public class Item {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "REQUEST_ID")
     private ItemRequest request;
+
+    /**
+     * Версия последнего изменения вещи или её отзывов из {@link ru.practicum.shareit.common.sync.ChangeClock}.
+     */
+    @Column(name = "CHANGE_VERSION", nullable = false)
+    private Long changeVersion;
 }
\ No newline at end of file
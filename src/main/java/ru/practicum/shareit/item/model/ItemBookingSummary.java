@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.booking.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и следующее бронирование вещи, вычисленные заранее.
+ * <p>
+ * Значения верны до {@link #refreshAt}: до ближайшего момента, когда одно из бронирований вещи начнётся
+ * или закончится. {@code null} означает, что они не устареют, пока не изменятся сами бронирования.
+ */
+@Entity
+@Table(name = "ITEM_BOOKING_SUMMARY")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "ITEM_ID")
+    private Long itemId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "LAST_BOOKING_ID")
+    private Booking lastBooking;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "NEXT_BOOKING_ID")
+    private Booking nextBooking;
+
+    @Column(name = "REFRESH_AT")
+    private LocalDateTime refreshAt;
+
+    public boolean isFreshAt(LocalDateTime now) {
+        return refreshAt == null || refreshAt.isAfter(now);
+    }
+}
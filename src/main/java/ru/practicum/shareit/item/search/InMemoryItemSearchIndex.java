@@ -0,0 +1,333 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный триграммный индекс в памяти приложения.
+ * <p>
+ * Текст запроса ищется целиком как подстрока названия или описания, так же как {@code LIKE %text%}
+ * в {@link JpaItemSearchIndex}: оба варианта находят одни и те же вещи и отличаются только порядком.
+ * Кандидаты отбираются пересечением списков вещей по триграммам текста, затем проверяются на точное
+ * вхождение. Совпадение в названии весит больше, чем в описании; совпадение с начала слова даёт бонус.
+ * <p>
+ * Первая страница собирается ограниченной кучей за один проход по кандидатам. Для следующих страниц
+ * все совпадения ранжируются один раз и кэшируются до первого изменения индекса, поэтому страница
+ * по курсору — это двоичный поиск в готовом порядке, а не повторное ранжирование всего набора.
+ * <p>
+ * У текста короче трёх символов триграмм нет и индекс ничего не сужает, поэтому такой запрос уходит
+ * в базу: {@code LIKE} по возрастанию id останавливается на странице, а не проверяет каждую вещь.
+ * Такие результаты не ранжируются.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "memory")
+public class InMemoryItemSearchIndex implements ItemSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int WARM_UP_BATCH_SIZE = 10_000;
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int WORD_START_BONUS = 1;
+
+    /**
+     * Ранжирование хранится как {@code long[]}: старшие биты — инвертированная релевантность, младшие — id,
+     * так что порядок по возрастанию совпадает с {@link SearchHit#BY_RANK}.
+     */
+    private static final int ID_BITS = 48;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final int MAX_SCORE = NAME_WEIGHT + WORD_START_BONUS + DESCRIPTION_WEIGHT;
+    /**
+     * Суммарная длина закэшированных ранжирований, в вещах.
+     */
+    private static final long RANKINGS_MAX_WEIGHT = 4_000_000;
+
+    private final ItemRepository itemRepository;
+    private final JpaItemSearchIndex shortTexts;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Cache<String, Ranking> rankings = Caffeine.newBuilder()
+            .maximumWeight(RANKINGS_MAX_WEIGHT)
+            .weigher((String text, Ranking ranking) -> ranking.keys().length)
+            .build();
+    /**
+     * Номер состояния индекса; меняется под блокировкой записи и делает устаревшими все ранжирования.
+     */
+    private long version;
+
+    public InMemoryItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+        this.shortTexts = new JpaItemSearchIndex(itemRepository);
+    }
+
+    @PostConstruct
+    void warmUp() {
+        PageRequest page = PageRequest.of(0, WARM_UP_BATCH_SIZE, Sort.by("id"));
+        Slice<Item> slice;
+        do {
+            slice = itemRepository.findAll(page);
+            slice.forEach(this::index);
+            page = page.next();
+        } while (slice.hasNext());
+        log.info("Поисковый индекс построен: вещей = {}, триграмм = {}", documents.size(), postings.size());
+    }
+
+    @Override
+    public void index(Item item) {
+        Document document = new Document(normalize(item.getName()),
+                normalize(item.getDescription()), Boolean.TRUE.equals(item.getAvailable()));
+
+        lock.writeLock().lock();
+        try {
+            version++;
+            Document previous = documents.put(item.getId(), document);
+            if (previous != null) {
+                for (long gram : previous.grams()) {
+                    PostingList list = postings.get(gram);
+                    list.remove(item.getId());
+                    if (list.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+            for (long gram : document.grams()) {
+                postings.computeIfAbsent(gram, g -> new PostingList()).add(item.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<SearchHit> search(String text, SearchHit after, int limit) {
+        String phrase = normalize(text);
+        if (phrase.isEmpty()) {
+            return List.of();
+        }
+        if (phrase.length() < GRAM_LENGTH) {
+            return shortTexts.search(text, after, limit);
+        }
+
+        lock.readLock().lock();
+        try {
+            Ranking ranking = rankings.getIfPresent(phrase);
+            if (ranking == null || ranking.version() != version) {
+                if (after == null) {
+                    return top(phrase, limit);
+                }
+                ranking = new Ranking(version, rank(phrase));
+                rankings.put(phrase, ranking);
+            }
+            return ranking.page(after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Первые {@code limit} совпадений без полной сортировки. Вызывается под блокировкой чтения.
+     */
+    private List<SearchHit> top(String phrase, int limit) {
+        PriorityQueue<SearchHit> top = new PriorityQueue<>(SearchHit.BY_RANK.reversed());
+        for (long id : candidates(phrase)) {
+            int score = score(documents.get(id), phrase);
+            if (score == 0) {
+                continue;
+            }
+            SearchHit hit = new SearchHit(id, score);
+            if (top.size() < limit) {
+                top.add(hit);
+            } else if (SearchHit.BY_RANK.compare(hit, top.peek()) < 0) {
+                top.poll();
+                top.add(hit);
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(top);
+        hits.sort(SearchHit.BY_RANK);
+        return hits;
+    }
+
+    /**
+     * Все совпадения в порядке {@link SearchHit#BY_RANK}. Вызывается под блокировкой чтения.
+     */
+    private long[] rank(String phrase) {
+        long[] candidates = candidates(phrase);
+        long[] keys = new long[candidates.length];
+        int count = 0;
+        for (long id : candidates) {
+            int score = score(documents.get(id), phrase);
+            if (score > 0) {
+                keys[count++] = key(score, id);
+            }
+        }
+        keys = Arrays.copyOf(keys, count);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    /**
+     * Возвращает вещи, содержащие все триграммы текста. Вызывается под блокировкой чтения.
+     */
+    private long[] candidates(String phrase) {
+        List<PostingList> lists = new ArrayList<>();
+        for (long gram : grams(phrase)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList smallest = lists.get(0);
+        long[] result = new long[smallest.size()];
+        int count = 0;
+        for (int i = 0; i < smallest.size(); i++) {
+            long id = smallest.get(i);
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                inAll = lists.get(j).contains(id);
+            }
+            if (inAll) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int score(Document document, String phrase) {
+        if (!document.available()) {
+            return 0;
+        }
+        int score = 0;
+        int position = document.name().indexOf(phrase);
+        if (position >= 0) {
+            score += NAME_WEIGHT;
+            if (position == 0 || !Character.isLetterOrDigit(document.name().charAt(position - 1))) {
+                score += WORD_START_BONUS;
+            }
+        }
+        if (document.description().contains(phrase)) {
+            score += DESCRIPTION_WEIGHT;
+        }
+        return score;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long key(int score, long id) {
+        return ((long) (MAX_SCORE - score) << ID_BITS) | id;
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private record Document(String name, String description, boolean available) {
+
+        private Set<Long> grams() {
+            Set<Long> grams = InMemoryItemSearchIndex.grams(name);
+            grams.addAll(InMemoryItemSearchIndex.grams(description));
+            return grams;
+        }
+    }
+
+    /**
+     * Все совпадения запроса, отсортированные по {@link #key(int, long)}, и состояние индекса, по которому
+     * они посчитаны.
+     */
+    private record Ranking(long version, long[] keys) {
+
+        private List<SearchHit> page(SearchHit after, int limit) {
+            int from = 0;
+            if (after != null) {
+                int position = Arrays.binarySearch(keys, key(Math.min(after.score(), MAX_SCORE), after.itemId()));
+                from = position >= 0 ? position + 1 : -position - 1;
+            }
+            int to = Math.min(keys.length, from + limit);
+            List<SearchHit> hits = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                hits.add(new SearchHit(keys[i] & ID_MASK, MAX_SCORE - (int) (keys[i] >>> ID_BITS)));
+            }
+            return hits;
+        }
+    }
+
+    /**
+     * Отсортированный по возрастанию список идентификаторов вещей.
+     * Идентификаторы выдаются базой по возрастанию, поэтому вставка почти всегда идёт в конец.
+     */
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private long get(int index) {
+            return ids[index];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поисковый индекс по названию и описанию вещей.
+ * Реализация выбирается свойством {@code shareit.search.backend}.
+ */
+public interface ItemSearchIndex {
+
+    /**
+     * Добавляет вещь в индекс или обновляет уже проиндексированную.
+     */
+    void index(Item item);
+
+    /**
+     * Ищет доступные вещи, в названии или описании которых текст запроса встречается целиком,
+     * без учёта регистра. Все реализации находят одни и те же вещи и различаются только порядком.
+     *
+     * @param text  текст запроса
+     * @param after последний результат предыдущей страницы или {@code null} для первой страницы
+     * @param limit максимальное число результатов
+     * @return найденные вещи в порядке {@link SearchHit#BY_RANK}, строго после {@code after}
+     */
+    List<SearchHit> search(String text, SearchHit after, int limit);
+}
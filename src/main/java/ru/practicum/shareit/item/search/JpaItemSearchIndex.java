@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Поиск напрямую в базе через {@code LIKE}. Индекс не хранится, ранжирование не выполняется.
+ * Символы шаблона {@code %} и {@code _} в тексте запроса экранируются и ищутся буквально.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "database", matchIfMissing = true)
+public class JpaItemSearchIndex implements ItemSearchIndex {
+
+    private final ItemRepository itemRepository;
+
+    public JpaItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public List<SearchHit> search(String text, SearchHit after, int limit) {
+        long afterId = after != null ? after.itemId() : 0L;
+        return itemRepository.searchAvailableIdsByText(escape(text.toLowerCase(Locale.ROOT)), afterId,
+                        Pageable.ofSize(limit)).stream()
+                .map(id -> new SearchHit(id, 0))
+                .toList();
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Comparator;
+
+/**
+ * Найденная вещь и её релевантность запросу.
+ */
+public record SearchHit(long itemId, int score) {
+
+    /**
+     * Порядок выдачи: сначала более релевантные, при равной релевантности — по возрастанию идентификатора.
+     */
+    public static final Comparator<SearchHit> BY_RANK = Comparator.comparingInt(SearchHit::score).reversed()
+            .thenComparingLong(SearchHit::itemId);
+}
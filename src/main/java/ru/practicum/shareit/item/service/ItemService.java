@@ -1,8 +1,15 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageParams;
+import ru.practicum.shareit.common.sync.ChangeSet;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchEntryDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -12,9 +19,17 @@ public interface ItemService {
 
     ItemDto getItemById(Long userId, Long itemId);
 
-    List<ItemDto> getItemsByOwner(Long userId);
+    List<ItemBatchEntryDto> getItemsByIds(Long userId, List<Long> itemIds);
 
-    List<ItemDto> searchItems(String text);
+    List<RequestMatchDto> getMatchingRequests(Long userId, Long itemId, int limit);
+
+    CursorPage<ItemDto> getItemsByOwner(Long userId, PageParams page);
+
+    ChangeSet<ItemDto> getItemChangesByOwner(Long userId, PageParams since);
+
+    CursorPage<ItemDto> searchItems(String text, PageParams page);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
     List<CommentDto> getCommentsForItem(Long itemId);
@@ -1,28 +1,55 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.booking.schedule.BookingScheduleRegistry;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.common.exceptions.NotAuthorizedException;
 import ru.practicum.shareit.common.exceptions.NotFoundException;
 import ru.practicum.shareit.common.exceptions.ValidationException;
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageCursor;
+import ru.practicum.shareit.common.pagination.PageParams;
+import ru.practicum.shareit.common.sync.ChangeClock;
+import ru.practicum.shareit.common.sync.ChangeSet;
+import ru.practicum.shareit.common.utils.TransactionUtils;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchEntryDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchHit;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.item.summary.ItemBookings;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.mappers.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.RequestMatch;
+import ru.practicum.shareit.request.matching.RequestMatchIndex;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,25 +61,61 @@ public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex searchIndex;
+    private final BookingScheduleRegistry scheduleRegistry;
+    private final ItemBookingSummaryService summaryService;
+    private final ItemViewLoader viewLoader;
+    private final ItemRequestRepository requestRepository;
+    private final RequestMatchIndex matchIndex;
+    private final ChangeClock changeClock;
+    private final TransactionTemplate reindexTransaction;
+    private final ReentrantLock[] reindexLocks = new ReentrantLock[REINDEX_LOCK_STRIPES];
+
+    private static final Duration DEFAULT_AVAILABILITY_WINDOW = Duration.ofDays(30);
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_MATCHES = 50;
+    private static final int REINDEX_LOCK_STRIPES = 64;
 
     public ItemServiceImpl(ItemRepository itemRepository,
                            UserRepository userRepository,
                            BookingRepository bookingRepository,
-                           CommentRepository commentRepository) {
+                           CommentRepository commentRepository,
+                           ItemSearchIndex searchIndex,
+                           BookingScheduleRegistry scheduleRegistry,
+                           ItemBookingSummaryService summaryService,
+                           ItemViewLoader viewLoader,
+                           ItemRequestRepository requestRepository,
+                           RequestMatchIndex matchIndex,
+                           ChangeClock changeClock,
+                           PlatformTransactionManager transactionManager) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
+        this.searchIndex = searchIndex;
+        this.scheduleRegistry = scheduleRegistry;
+        this.summaryService = summaryService;
+        this.viewLoader = viewLoader;
+        this.requestRepository = requestRepository;
+        this.matchIndex = matchIndex;
+        this.changeClock = changeClock;
+        this.reindexTransaction = new TransactionTemplate(transactionManager);
+        this.reindexTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reindexTransaction.setReadOnly(true);
+        for (int i = 0; i < REINDEX_LOCK_STRIPES; i++) {
+            reindexLocks[i] = new ReentrantLock();
+        }
     }
 
     /**
      * Создает новую вещь для пользователя-владельца.
      *
      * @param userId идентификатор владельца вещи
-     * @param dto    данные вещи (название, описание, доступность)
+     * @param dto    данные вещи (название, описание, доступность и, если вещь — ответ на запрос, его id)
      * @return {@link ItemDto} с информацией о созданной вещи
-     * @throws NotFoundException        если пользователь не найден
+     * @throws NotFoundException        если пользователь или указанный запрос не найдены
      * @throws IllegalArgumentException если поле {@code available} не указано
+     * @throws ValidationException      если указан собственный запрос владельца
      */
     @Override
     @Transactional
@@ -66,8 +129,15 @@ public class ItemServiceImpl implements ItemService {
             throw new IllegalArgumentException("Поле 'available' обязательно для заполнения");
         }
 
-        Item item = ItemMapper.toItem(dto, owner, null);
+        ItemRequest request = dto.getRequestId() != null ? findRequestToAnswer(dto.getRequestId(), userId) : null;
+        Item item = ItemMapper.toItem(dto, owner, request);
+        item.setChangeVersion(changeClock.next());
         item = itemRepository.save(item);
+        summaryService.create(item.getId());
+        reindexAfterCommit(item);
+        if (request != null) {
+            closeRequest(request.getId());
+        }
 
         log.info("Создана вещь id = {} пользователем id = {}", item.getId(), owner.getId());
         return ItemMapper.toItemDto(item);
@@ -75,7 +145,8 @@ public class ItemServiceImpl implements ItemService {
 
     /**
      * Обновляет существующую вещь.
-     * Обновление разрешено только владельцу вещи.
+     * Обновление разрешено только владельцу вещи. Переданный {@code requestId} привязывает вещь к запросу,
+     * если она ещё ни к какому не привязана.
      *
      * @param userId идентификатор пользователя, выполняющего обновление
      * @param itemId идентификатор вещи
@@ -83,6 +154,7 @@ public class ItemServiceImpl implements ItemService {
      * @return {@link ItemDto} с обновленными данными
      * @throws NotFoundException      если вещь не найдена
      * @throws NotAuthorizedException если пользователь не является владельцем вещи
+     * @throws ValidationException    если вещь уже привязана к другому запросу или запрос собственный
      */
     @Override
     @Transactional
@@ -99,16 +171,119 @@ public class ItemServiceImpl implements ItemService {
         if (dto.getName() != null) item.setName(dto.getName());
         if (dto.getDescription() != null) item.setDescription(dto.getDescription());
         if (dto.getAvailable() != null) item.setAvailable(dto.getAvailable());
+        if (dto.getRequestId() != null) attachToRequest(item, dto.getRequestId(), userId);
 
+        item.setChangeVersion(changeClock.next());
         item = itemRepository.save(item);
+        reindexAfterCommit(item);
 
         log.info("Вещь обновлена: id = {} пользователем id = {}", item.getId(), userId);
         return ItemMapper.toItemDto(item);
     }
 
+    /**
+     * Обновляет вещь в поисковом индексе после фиксации. В индекс попадает не сохранённый в транзакции объект,
+     * а вещь, перечитанная из базы: обработчики двух параллельных изменений одной вещи могут выполниться
+     * в порядке, обратном их фиксациям. Перечитывание и индексация одной вещи идут под общей блокировкой,
+     * поэтому последний обработчик читает вещь уже после обеих фиксаций и оставляет в индексе итоговое состояние.
+     */
+    private void reindexAfterCommit(Item saved) {
+        Long itemId = saved.getId();
+        TransactionUtils.afterCommit(() -> {
+            ReentrantLock lock = reindexLocks[Math.floorMod(itemId.hashCode(), REINDEX_LOCK_STRIPES)];
+            lock.lock();
+            try {
+                Item current = reindexTransaction.execute(status -> itemRepository.findUncachedById(itemId)
+                        .orElse(saved));
+                searchIndex.index(current);
+            } catch (RuntimeException e) {
+                log.warn("Вещь id = {} не перечитана для поискового индекса, индексируется сохранённое состояние: {}",
+                        itemId, e.getMessage());
+                searchIndex.index(saved);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Подбирает открытые запросы других пользователей, на которые может ответить вещь владельца.
+     * Подбор выполняется по индексу в памяти ({@link RequestMatchIndex}), из базы читаются только
+     * найденные запросы, которые всё ещё открыты. Индекс обновляется после фиксации и может ненадолго
+     * отставать от базы: добавление запроса способно выполниться уже после привязки к нему вещи.
+     * Такие закрытые запросы отбрасываются и заодно убираются из индекса.
+     *
+     * @param userId идентификатор владельца вещи
+     * @param itemId идентификатор вещи
+     * @param limit  максимальное число запросов
+     * @return подходящие запросы, лучшие первыми
+     * @throws NotFoundException      если вещь не найдена
+     * @throws NotAuthorizedException если пользователь не является владельцем вещи
+     * @throws ValidationException    если лимит вне допустимого диапазона
+     */
+    @Override
+    public List<RequestMatchDto> getMatchingRequests(Long userId, Long itemId, int limit) {
+        if (limit < 1 || limit > MAX_MATCHES) {
+            throw new ValidationException("Лимит должен быть от 1 до " + MAX_MATCHES);
+        }
+
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь не найдена: " + itemId));
+        if (!item.getOwner().getId().equals(userId)) {
+            throw new NotAuthorizedException("Подбирать запросы может только владелец вещи");
+        }
+
+        List<RequestMatch> matches = matchIndex.match(item.getName(), item.getDescription(), userId, limit);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ItemRequest> openById = requestRepository.findOpenByIdIn(
+                        matches.stream().map(RequestMatch::requestId).toList()).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        matches.stream()
+                .map(RequestMatch::requestId)
+                .filter(requestId -> !openById.containsKey(requestId))
+                .forEach(matchIndex::remove);
+        return matches.stream()
+                .filter(match -> openById.containsKey(match.requestId()))
+                .map(match -> ItemRequestMapper.toMatchDto(openById.get(match.requestId()), match.score()))
+                .collect(Collectors.toList());
+    }
+
+    private void attachToRequest(Item item, Long requestId, Long userId) {
+        if (item.getRequest() != null) {
+            if (!item.getRequest().getId().equals(requestId)) {
+                throw new ValidationException("Вещь уже привязана к запросу " + item.getRequest().getId());
+            }
+            return;
+        }
+        item.setRequest(findRequestToAnswer(requestId, userId));
+        closeRequest(requestId);
+    }
+
+    private ItemRequest findRequestToAnswer(Long requestId, Long userId) {
+        ItemRequest request = requestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос не найден: " + requestId));
+        if (request.getRequestor().getId().equals(userId)) {
+            throw new ValidationException("Нельзя ответить вещью на собственный запрос");
+        }
+        return request;
+    }
+
+    /**
+     * Запрос, к которому привязана вещь, больше не подбирается к другим вещам.
+     */
+    private void closeRequest(Long requestId) {
+        TransactionUtils.afterCommit(() -> matchIndex.remove(requestId));
+    }
+
     /**
      * Возвращает информацию о вещи по её идентификатору.
-     * Если пользователь — владелец, могут быть добавлены данные о бронированиях.
+     * Если пользователь — владелец, добавляются последнее и следующее бронирование.
+     * Вещь, комментарии и бронирования загружаются параллельно ({@link ItemViewLoader}); если комментарии
+     * или бронирования не успели загрузиться, вещь возвращается без них, а пропущенные части
+     * перечисляются в {@code missingParts}.
      *
      * @param userId идентификатор пользователя, выполняющего запрос
      * @param itemId идентификатор вещи
@@ -116,59 +291,186 @@ public class ItemServiceImpl implements ItemService {
      * @throws NotFoundException если вещь не найдена
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ItemDto getItemById(Long userId, Long itemId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь не найдена: " + itemId));
+        ItemViewLoader.ItemView view = viewLoader.load(userId, itemId);
+        ItemBookings bookings = view.bookings();
+        ItemDto dto = ItemMapper.toItemDto(view.item(), bookings.last(), bookings.next(), view.comments());
+        dto.setMissingParts(view.missingParts());
+        return dto;
+    }
+
+    /**
+     * Возвращает вещи по списку идентификаторов в порядке запроса. Вещи, комментарии и бронирования
+     * загружаются пакетно, поэтому число запросов к базе не зависит от длины списка.
+     * Как и для одной вещи, последнее и следующее бронирование видит только владелец.
+     *
+     * @param userId  идентификатор пользователя, выполняющего запрос
+     * @param itemIds идентификаторы вещей; повторы допускаются
+     * @return по элементу на каждый идентификатор: найденная вещь или отметка {@code NOT_FOUND}
+     * @throws ValidationException если список пуст, длиннее {@value #MAX_BATCH_SIZE} или содержит пустые значения
+     */
+    @Override
+    public List<ItemBatchEntryDto> getItemsByIds(Long userId, List<Long> itemIds) {
+        if (itemIds == null || itemIds.isEmpty() || itemIds.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Число идентификаторов должно быть от 1 до " + MAX_BATCH_SIZE);
+        }
+        if (itemIds.contains(null)) {
+            throw new ValidationException("Идентификатор вещи не может быть пустым");
+        }
+
+        List<Item> items = itemRepository.findAllById(new LinkedHashSet<>(itemIds));
+        Map<Long, ItemDto> dtosById = toItemDtosWithBookings(items, userId).stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
 
-        List<Comment> comments = commentRepository.findAllByItemIdOrderByCreatedDesc(itemId);
-        return ItemMapper.toItemDto(item, null, null, comments);
+        return itemIds.stream()
+                .map(id -> dtosById.containsKey(id)
+                        ? new ItemBatchEntryDto(id, ItemBatchEntryDto.Status.FOUND, dtosById.get(id))
+                        : new ItemBatchEntryDto(id, ItemBatchEntryDto.Status.NOT_FOUND, null))
+                .collect(Collectors.toList());
     }
 
     /**
-     * Возвращает все вещи, принадлежащие владельцу.
+     * Возвращает страницу вещей, принадлежащих владельцу, в порядке возрастания идентификатора.
      * Для каждой вещи добавляются последние и будущие бронирования, а также комментарии.
+     * Дополнительные данные загружаются пакетно для всей страницы сразу, поэтому число
+     * запросов к базе не зависит от количества вещей.
+     *
+     * @param userId идентификатор владельца
+     * @param page   курсор и размер страницы
+     * @return страница {@link ItemDto} с дополнительными данными
+     * @throws NotFoundException если пользователь не найден
+     */
+    @Override
+    public CursorPage<ItemDto> getItemsByOwner(Long userId, PageParams page) {
+        User owner = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + userId));
+
+        List<Item> rows = itemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(owner.getId(),
+                page.afterIdAscending(), page.probe());
+        CursorPage<Item> items = CursorPage.of(rows, page, item -> PageCursor.of(item.getId()), Function.identity());
+        return new CursorPage<>(toItemDtosWithBookings(items.getItems(), owner.getId()), items.getNextCursor());
+    }
+
+    /**
+     * Возвращает вещи владельца, созданные или изменённые после токена клиента, в порядке версий —
+     * с теми же комментариями, последним и следующим бронированием, что и полный список.
+     * Новый отзыв меняет версию вещи. Смена последнего и следующего бронирования со временем
+     * или из-за нового бронирования версию вещи не меняет: клиент узнаёт о ней из изменений
+     * бронирований владельца.
      *
      * @param userId идентификатор владельца
-     * @return список {@link ItemDto} с дополнительными данными
+     * @param since  токен предыдущей синхронизации (без токена — все вещи) и размер порции
+     * @return изменённые вещи и токен для следующей синхронизации
      * @throws NotFoundException если пользователь не найден
      */
     @Override
-    public List<ItemDto> getItemsByOwner(Long userId) {
+    public ChangeSet<ItemDto> getItemChangesByOwner(Long userId, PageParams since) {
         User owner = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + userId));
 
-        List<Item> items = itemRepository.findAllByOwnerId(owner.getId());
+        long watermark = changeClock.watermark();
+        List<Item> rows = itemRepository.findChangedByOwner(owner.getId(), since.afterIdAscending(), watermark,
+                since.probe());
+        return ChangeSet.of(rows, since, Item::getChangeVersion,
+                items -> toItemDtosWithBookings(items, owner.getId()), watermark);
+    }
+
+    /**
+     * Обогащает список вещей комментариями, а вещи пользователя — ещё последним и следующим бронированием.
+     * Выполняет фиксированное число запросов (комментарии и сводки бронирований, а для вещей
+     * с устаревшей сводкой — ещё поиск последних и следующих бронирований) и соединяет
+     * результаты в памяти по идентификатору вещи.
+     *
+     * @param items  вещи для обогащения
+     * @param userId пользователь, для вещей которого добавляются бронирования
+     * @return список {@link ItemDto} в порядке исходного списка
+     */
+    private List<ItemDto> toItemDtosWithBookings(List<Item> items, Long userId) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        List<Long> ownedIds = items.stream()
+                .filter(item -> item.getOwner().getId().equals(userId))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<Comment>> commentsByItem = commentRepository.findAllByItemIdInWithAuthor(itemIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
+        Map<Long, ItemBookings> bookingsByItem = summaryService.findForItems(ownedIds);
 
         return items.stream()
                 .map(item -> {
-                    List<Comment> comments = commentRepository.findAllByItemIdOrderByCreatedDesc(item.getId());
-                    Booking lastBooking = bookingRepository.findLastBooking(item.getId(), Pageable.ofSize(1))
-                            .stream().findFirst().orElse(null);
-                    Booking nextBooking = bookingRepository.findNextBooking(item.getId(), Pageable.ofSize(1))
-                            .stream().findFirst().orElse(null);
-                    return ItemMapper.toItemDto(item, lastBooking, nextBooking, comments);
+                    ItemBookings bookings = bookingsByItem.getOrDefault(item.getId(), ItemBookings.NONE);
+                    return ItemMapper.toItemDto(item, bookings.last(), bookings.next(),
+                            commentsByItem.getOrDefault(item.getId(), List.of()));
                 })
                 .collect(Collectors.toList());
     }
 
     /**
      * Выполняет поиск доступных вещей по тексту (в названии или описании).
-     * Поиск нечувствителен к регистру.
+     * Поиск нечувствителен к регистру; при нескольких словах вещь должна содержать каждое из них.
+     * Результаты упорядочены по релевантности.
      *
      * @param text текст поискового запроса
-     * @return список {@link ItemDto}, соответствующих запросу
+     * @param page курсор и размер страницы
+     * @return страница {@link ItemDto}, соответствующих запросу
      */
     @Override
-    public List<ItemDto> searchItems(String text) {
-        log.debug("Поиск вещей по тексту: '{}'", text);
+    public CursorPage<ItemDto> searchItems(String text, PageParams page) {
+        log.debug("Поиск вещей по тексту: '{}', limit = {}", text, page.getLimit());
 
         if (text == null || text.isBlank()) {
-            return List.of();
+            return new CursorPage<>(List.of(), null);
         }
 
-        return itemRepository.searchAvailableByText(text.toLowerCase()).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        SearchHit after = page.hasCursor()
+                ? new SearchHit(page.getAfter().getId(), page.getAfter().keyAsInt())
+                : null;
+        List<SearchHit> hits = searchIndex.search(text, after, page.getLimit() + 1);
+        Map<Long, Item> itemsById = itemRepository.findAllById(hits.stream().map(SearchHit::itemId).toList()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<SearchHit> found = hits.stream()
+                .filter(hit -> itemsById.containsKey(hit.itemId()))
+                .toList();
+        return CursorPage.of(found, page, hit -> PageCursor.of(hit.score(), hit.itemId()),
+                hit -> ItemMapper.toItemDto(itemsById.get(hit.itemId())));
+    }
+
+    /**
+     * Возвращает календарь занятости вещи в заданном окне: слитые занятые интервалы
+     * (ожидающие подтверждения и подтверждённые бронирования) и свободные промежутки между ними.
+     * Ответ строится по снимку расписания вещи в памяти. Расписание хранит только незакончившиеся
+     * бронирования, поэтому для окна, начинающегося в прошлом, закончившиеся бронирования
+     * дочитываются из базы одним запросом.
+     *
+     * @param itemId идентификатор вещи
+     * @param from   начало окна; по умолчанию текущий момент
+     * @param to     конец окна; по умолчанию через 30 дней после начала
+     * @return {@link ItemAvailabilityDto} с занятыми и свободными интервалами
+     * @throws NotFoundException   если вещь не найдена
+     * @throws ValidationException если конец окна не позже его начала
+     */
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime windowStart = from != null ? from : LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime windowEnd = to != null ? to : windowStart.plus(DEFAULT_AVAILABILITY_WINDOW);
+        if (!windowEnd.isAfter(windowStart)) {
+            throw new ValidationException("Конец периода должен быть позже начала");
+        }
+
+        if (itemRepository.findById(itemId).isEmpty()) {
+            throw new NotFoundException("Вещь не найдена: " + itemId);
+        }
+
+        return ItemMapper.toAvailabilityDto(itemId, windowStart, windowEnd,
+                scheduleRegistry.timeline(itemId, windowStart, windowEnd));
     }
 
     /**
@@ -201,6 +503,8 @@ public class ItemServiceImpl implements ItemService {
 
         Comment comment = CommentMapper.toComment(commentDto, user, item);
         comment = commentRepository.save(comment);
+        // Отзывы приходят клиенту в составе вещи, поэтому новый отзыв — изменение вещи
+        item.setChangeVersion(changeClock.next());
         return CommentMapper.toDto(comment);
     }
 
@@ -212,7 +516,7 @@ public class ItemServiceImpl implements ItemService {
      */
     @Override
     public List<CommentDto> getCommentsForItem(Long itemId) {
-        return commentRepository.findAllByItemIdOrderByCreatedDesc(itemId).stream()
+        return commentRepository.findAllByItemIdInWithAuthor(List.of(itemId)).stream()
                 .map(CommentMapper::toDto)
                 .collect(Collectors.toList());
     }
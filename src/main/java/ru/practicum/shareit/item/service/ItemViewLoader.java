@@ -0,0 +1,205 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.common.sql.SqlStatementCounter;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.item.summary.ItemBookings;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Загружает данные карточки вещи: саму вещь, комментарии и (для владельца) последнее и следующее бронирование.
+ * <p>
+ * Все три части запускаются сразу в {@code applicationTaskExecutor} (на виртуальных потоках, если они
+ * включены), каждая в своей транзакции только для чтения. Владелец вещи до её загрузки неизвестен,
+ * поэтому часть с бронированиями сама проверяет владельца запросом по первичному ключу и для остальных
+ * пользователей ничего не загружает. Поток запроса соединение не держит, поэтому карточка занимает
+ * не больше трёх соединений одновременно и не может ждать пул, удерживая его.
+ * <p>
+ * Комментарии и бронирования необязательны: если они не пришли за отведённое время, карточка отдаётся
+ * без них, пропущенные части перечисляются в {@link ItemView#missingParts()} (клиент видит их в поле
+ * {@code missingParts}), а пропуск отмечается в метрике {@code item.view.degraded}. Ошибки запросов
+ * пробрасываются. Вещь обязательна: если она не загрузилась за {@code item-timeout}, запрос завершается ошибкой.
+ * <p>
+ * Отмена {@link CompletableFuture} не прерывает запрос к базе, поэтому транзакция каждой части получает
+ * таймаут своей части: Spring передаёт его в запросы подсказкой {@code jakarta.persistence.query.timeout},
+ * Hibernate — в {@code Statement.setQueryTimeout}, и база отменяет опоздавший запрос, возвращая соединение
+ * в пул. JDBC задаёт таймаут в целых секундах, поэтому он округляется вверх.
+ * <p>
+ * {@code StructuredTaskScope} в Java 21 — preview API: он требует {@code --enable-preview} при компиляции
+ * и при каждом запуске приложения и тестов, а его {@code joinUntil} даёт один срок на все задачи.
+ * Здесь у каждой части свой срок и своё значение по умолчанию, поэтому используется {@link CompletableFuture}.
+ */
+@Slf4j
+@Component
+public class ItemViewLoader {
+
+    public static final String COMMENTS = "comments";
+    public static final String BOOKINGS = "bookings";
+
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemBookingSummaryService summaryService;
+    private final AsyncTaskExecutor executor;
+    private final TransactionTemplate itemTransaction;
+    private final TransactionTemplate commentsTransaction;
+    private final TransactionTemplate bookingsTransaction;
+    private final Duration itemTimeout;
+    private final Duration commentsTimeout;
+    private final Duration bookingsTimeout;
+    private final Counter commentsDegraded;
+    private final Counter bookingsDegraded;
+
+    public ItemViewLoader(ItemRepository itemRepository,
+                          CommentRepository commentRepository,
+                          ItemBookingSummaryService summaryService,
+                          @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${shareit.item-view.item-timeout:2s}") Duration itemTimeout,
+                          @Value("${shareit.item-view.comments-timeout:300ms}") Duration commentsTimeout,
+                          @Value("${shareit.item-view.bookings-timeout:300ms}") Duration bookingsTimeout,
+                          MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.commentRepository = commentRepository;
+        this.summaryService = summaryService;
+        this.executor = executor;
+        this.itemTransaction = readOnlyTransaction(transactionManager, itemTimeout);
+        this.commentsTransaction = readOnlyTransaction(transactionManager, commentsTimeout);
+        this.bookingsTransaction = readOnlyTransaction(transactionManager, bookingsTimeout);
+        this.itemTimeout = itemTimeout;
+        this.commentsTimeout = commentsTimeout;
+        this.bookingsTimeout = bookingsTimeout;
+        this.commentsDegraded = degradedCounter(meterRegistry, COMMENTS);
+        this.bookingsDegraded = degradedCounter(meterRegistry, BOOKINGS);
+    }
+
+    /**
+     * Данные карточки вещи; {@code comments} пуст, а {@code bookings} равен {@link ItemBookings#NONE},
+     * если они не положены пользователю или не загрузились вовремя. {@code missingParts} перечисляет
+     * части, которые не загрузились вовремя ({@value #COMMENTS}, {@value #BOOKINGS}); у полной карточки он пуст.
+     */
+    public record ItemView(Item item, List<Comment> comments, ItemBookings bookings, List<String> missingParts) {
+    }
+
+    /**
+     * Загружает вещь, комментарии к ней и, если пользователь владелец, бронирования одновременно.
+     *
+     * @throws NotFoundException если вещь не найдена
+     */
+    public ItemView load(Long userId, Long itemId) {
+        long started = System.nanoTime();
+        CompletableFuture<Item> itemFuture = fork(itemTransaction, () -> itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь не найдена: " + itemId)));
+        CompletableFuture<List<Comment>> commentsFuture = fork(commentsTransaction, () ->
+                commentRepository.findAllByItemIdInWithAuthor(List.of(itemId)));
+        CompletableFuture<ItemBookings> bookingsFuture = fork(bookingsTransaction, () ->
+                itemRepository.existsByIdAndOwnerId(itemId, userId)
+                        ? summaryService.findForItems(List.of(itemId)).get(itemId)
+                        : ItemBookings.NONE);
+
+        Item item;
+        try {
+            item = await(itemFuture, started + itemTimeout.toNanos(), itemId);
+        } catch (RuntimeException e) {
+            commentsFuture.cancel(true);
+            bookingsFuture.cancel(true);
+            throw e;
+        }
+
+        List<String> missingParts = new ArrayList<>();
+        List<Comment> comments = awaitOrDefault(commentsFuture, started + commentsTimeout.toNanos(), List.of(),
+                commentsDegraded, COMMENTS, itemId, missingParts);
+        ItemBookings bookings = ItemBookings.NONE;
+        if (item.getOwner().getId().equals(userId)) {
+            bookings = awaitOrDefault(bookingsFuture, started + bookingsTimeout.toNanos(), ItemBookings.NONE,
+                    bookingsDegraded, BOOKINGS, itemId, missingParts);
+        } else {
+            // Проверка владельца в части с бронированиями вернёт NONE сама; ждать её незачем
+            bookingsFuture.cancel(true);
+        }
+        return new ItemView(item, comments, bookings, List.copyOf(missingParts));
+    }
+
+    private <T> CompletableFuture<T> fork(TransactionTemplate transaction, Supplier<T> query) {
+        return CompletableFuture.supplyAsync(
+                SqlStatementCounter.propagate(() -> transaction.execute(status -> query.get())), executor);
+    }
+
+    private static TransactionTemplate readOnlyTransaction(PlatformTransactionManager transactionManager,
+                                                           Duration timeout) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+        return transaction;
+    }
+
+    private <T> T await(CompletableFuture<T> future, long deadline, Long itemId) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("Вещь id = " + itemId + " не загрузилась за " + itemTimeout.toMillis()
+                    + " мс", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Загрузка вещи прервана", e);
+        }
+    }
+
+    private static <T> T awaitOrDefault(CompletableFuture<T> future, long deadline, T fallback,
+                                        Counter degraded, String part, Long itemId, List<String> missingParts) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            degraded.increment();
+            missingParts.add(part);
+            log.warn("Карточка вещи id = {} отдана без части {}: она не загрузилась вовремя", itemId, part);
+            return fallback;
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Загрузка вещи прервана", e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static Counter degradedCounter(MeterRegistry meterRegistry, String part) {
+        return Counter.builder("item.view.degraded")
+                .description("Карточки вещей, отданные без части данных из-за таймаута")
+                .tag("part", part)
+                .register(meterRegistry);
+    }
+}
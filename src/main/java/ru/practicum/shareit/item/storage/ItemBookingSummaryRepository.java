@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.storage;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("SELECT s FROM ItemBookingSummary s LEFT JOIN FETCH s.lastBooking LEFT JOIN FETCH s.nextBooking " +
+            "WHERE s.itemId IN :itemIds")
+    List<ItemBookingSummary> findAllWithBookings(Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingSummary s WHERE s.itemId = :itemId")
+    Optional<ItemBookingSummary> findForUpdate(Long itemId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ItemBookingSummary s SET s.refreshAt = :now WHERE s.itemId = :itemId")
+    int markStale(Long itemId, LocalDateTime now);
+
+    @Query("SELECT s.itemId FROM ItemBookingSummary s WHERE s.refreshAt <= :now ORDER BY s.refreshAt")
+    List<Long> findDueItemIds(LocalDateTime now, Pageable pageable);
+}
@@ -1,16 +1,38 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByOwnerId(Long ownerId);
+    List<Item> findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long afterId, Pageable pageable);
 
-    @Query("SELECT i FROM Item i " +
-            "WHERE (LOWER(i.name) LIKE %:text% OR LOWER(i.description) LIKE %:text%) " +
-            "AND i.available = TRUE")
-    List<Item> searchAvailableByText(String text);
-}
\ No newline at end of file
+    @Query("SELECT i FROM Item i WHERE i.owner.id = :ownerId " +
+            "AND i.changeVersion > :afterVersion AND i.changeVersion <= :upToVersion ORDER BY i.changeVersion")
+    List<Item> findChangedByOwner(Long ownerId, long afterVersion, long upToVersion, Pageable pageable);
+
+    /**
+     * Вещь в зафиксированном состоянии: JPQL-запрос читает строку из базы, а не из кэша второго уровня.
+     */
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findUncachedById(Long itemId);
+
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    boolean existsByIdAndOwnerId(Long itemId, Long ownerId);
+
+    /**
+     * Идентификаторы доступных вещей, в названии или описании которых есть {@code text}. Текст должен быть
+     * в нижнем регистре; {@code %}, {@code _} и {@code \} в нём экранируются обратной косой чертой.
+     */
+    @Query("SELECT i.id FROM Item i " +
+            "WHERE (LOWER(i.name) LIKE CONCAT('%', :text, '%') ESCAPE '\\' " +
+            "OR LOWER(i.description) LIKE CONCAT('%', :text, '%') ESCAPE '\\') " +
+            "AND i.available = TRUE AND i.id > :afterId ORDER BY i.id")
+    List<Long> searchAvailableIdsByText(String text, Long afterId, Pageable pageable);
+}
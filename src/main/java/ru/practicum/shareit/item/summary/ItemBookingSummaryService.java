@@ -0,0 +1,173 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.common.utils.TransactionUtils;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.storage.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Поддерживает сводку «последнее/следующее бронирование» по каждой вещи (ITEM_BOOKING_SUMMARY),
+ * чтобы списки вещей владельца читали её одним запросом, а не искали бронирования каждый раз.
+ * <p>
+ * Изменение бронирований вещи помечает её сводку устаревшей в той же транзакции, а после фиксации
+ * сводка пересчитывается в отдельной транзакции под блокировкой строки: параллельные пересчёты одной вещи
+ * выполняются по очереди, и последний видит все зафиксированные изменения. Со временем сводка
+ * устаревает сама (бронирование начинается или заканчивается), такие строки пересчитывает периодическая задача.
+ * <p>
+ * Устаревшие и отсутствующие сводки при чтении не используются: для них последнее и следующее
+ * бронирование находятся запросами к BOOKINGS, поэтому ответ не зависит от того, успел ли пройти пересчёт.
+ */
+@Slf4j
+@Service
+public class ItemBookingSummaryService {
+
+    private static final Pageable FIRST = PageRequest.of(0, 1);
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate refreshTransaction;
+    private final int batchSize;
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository summaryRepository,
+                                     BookingRepository bookingRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${shareit.item-summary.batch-size:500}") int batchSize) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Создаёт пустую сводку для новой вещи: бронирований у неё нет, и сводка не устареет до первого из них.
+     */
+    @Transactional
+    public void create(Long itemId) {
+        summaryRepository.save(ItemBookingSummary.builder().itemId(itemId).build());
+    }
+
+    /**
+     * Помечает сводку вещи устаревшей в текущей транзакции и пересчитывает её после фиксации.
+     * Вызывается при создании бронирования и при смене его статуса.
+     */
+    @Transactional
+    public void bookingsChanged(Long itemId) {
+        summaryRepository.markStale(itemId, LocalDateTime.now());
+        TransactionUtils.afterCommit(() -> {
+            try {
+                refresh(itemId);
+            } catch (RuntimeException e) {
+                log.warn("Сводка бронирований вещи id = {} не пересчитана, её обновит периодическая задача: {}",
+                        itemId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Возвращает последнее и следующее бронирование для каждой из вещей.
+     * Актуальные сводки читаются одним запросом; для остальных вещей выполняются запросы к BOOKINGS.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookings> findForItems(Collection<Long> itemIds) {
+        Map<Long, ItemBookings> result = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return result;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> stale = new LinkedHashSet<>(itemIds);
+        for (ItemBookingSummary summary : summaryRepository.findAllWithBookings(itemIds)) {
+            if (summary.isFreshAt(now)) {
+                result.put(summary.getItemId(), new ItemBookings(summary.getLastBooking(), summary.getNextBooking()));
+                stale.remove(summary.getItemId());
+            }
+        }
+        if (!stale.isEmpty()) {
+            Map<Long, Booking> lastByItem = firstBookingPerItem(bookingRepository.findLastBookings(stale));
+            Map<Long, Booking> nextByItem = firstBookingPerItem(bookingRepository.findNextBookings(stale));
+            for (Long itemId : stale) {
+                result.put(itemId, new ItemBookings(lastByItem.get(itemId), nextByItem.get(itemId)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Пересчитывает сводку вещи в отдельной транзакции под блокировкой её строки.
+     */
+    public void refresh(Long itemId) {
+        refreshTransaction.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            ItemBookingSummary summary = summaryRepository.findForUpdate(itemId)
+                    .orElseGet(() -> ItemBookingSummary.builder().itemId(itemId).build());
+            summary.setLastBooking(first(bookingRepository.findLastBooking(itemId, now, FIRST)));
+            summary.setNextBooking(first(bookingRepository.findNextBooking(itemId, now, FIRST)));
+            summary.setRefreshAt(bookingRepository.findNextBoundaryForItem(itemId, now));
+            summaryRepository.save(summary);
+        });
+    }
+
+    /**
+     * Пересчитывает сводки, которые устарели: бронирование началось или закончилось, либо пересчёт
+     * после изменения не удался. Останавливается на пачке, в которой были ошибки, чтобы не повторять
+     * одни и те же вещи до следующего запуска.
+     */
+    @Scheduled(fixedDelayString = "${shareit.item-summary.refresh-interval:PT10S}",
+            initialDelayString = "${shareit.item-summary.refresh-interval:PT10S}")
+    public void refreshDue() {
+        int refreshed = 0;
+        List<Long> due;
+        do {
+            due = summaryRepository.findDueItemIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            int failed = 0;
+            for (Long itemId : due) {
+                try {
+                    refresh(itemId);
+                    refreshed++;
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.warn("Не удалось пересчитать сводку бронирований вещи id = {}: {}", itemId, e.getMessage());
+                }
+            }
+            if (failed > 0) {
+                break;
+            }
+        } while (due.size() == batchSize);
+
+        if (refreshed > 0) {
+            log.debug("Пересчитано сводок бронирований вещей: {}", refreshed);
+        }
+    }
+
+    private static Booking first(List<Booking> bookings) {
+        return bookings.isEmpty() ? null : bookings.get(0);
+    }
+
+    private static Map<Long, Booking> firstBookingPerItem(List<Booking> bookings) {
+        Map<Long, Booking> result = new HashMap<>();
+        for (Booking booking : bookings) {
+            result.putIfAbsent(booking.getItem().getId(), booking);
+        }
+        return result;
+    }
+}
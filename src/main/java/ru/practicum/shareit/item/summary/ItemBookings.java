@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.summary;
+
+import ru.practicum.shareit.booking.Booking;
+
+/**
+ * Последнее завершившееся и ближайшее будущее бронирование вещи; любое из них может отсутствовать.
+ */
+public record ItemBookings(Booking last, Booking next) {
+
+    public static final ItemBookings NONE = new ItemBookings(null, null);
+}
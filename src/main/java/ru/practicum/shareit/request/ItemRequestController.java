@@ -1,9 +1,15 @@
 package ru.practicum.shareit.request;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageParams;
+import ru.practicum.shareit.common.pagination.PageResponses;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.events.ItemRequestFeed;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
@@ -14,10 +20,12 @@ import java.util.List;
 public class ItemRequestController {
 
     private final ItemRequestService requestService;
+    private final ItemRequestFeed requestFeed;
     private static final String USER_HEADER = "X-Sharer-User-Id";
 
-    public ItemRequestController(ItemRequestService requestService) {
+    public ItemRequestController(ItemRequestService requestService, ItemRequestFeed requestFeed) {
         this.requestService = requestService;
+        this.requestFeed = requestFeed;
     }
 
     @PostMapping
@@ -35,8 +43,23 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<ItemRequestDto>> getAllRequests() {
-        List<ItemRequestDto> list = requestService.getAllRequests();
-        return ResponseEntity.ok(list);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader(USER_HEADER) Long userId,
+                                                               @RequestParam(required = false) String after,
+                                                               @RequestParam(defaultValue = "100") int limit) {
+        log.info("ItemRequestController getAllRequests: userId = {}, after = {}, limit = {}", userId, after, limit);
+        CursorPage<ItemRequestDto> page = requestService.getAllRequests(userId, PageParams.of(after, limit));
+        return PageResponses.ok(page);
+    }
+
+    /**
+     * Поток SSE-событий {@code request-created} о новых запросах всех пользователей.
+     * При переподключении клиент передаёт {@code Last-Event-ID} и получает пропущенные запросы;
+     * если их уже нет, приходит событие {@code reset}, и ленту нужно перечитать через {@code /requests/all}.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(USER_HEADER) Long userId,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("ItemRequestController streamEvents: userId = {}, lastEventId = {}", userId, lastEventId);
+        return requestFeed.subscribe(userId, lastEventId);
     }
-}
\ No newline at end of file
+}
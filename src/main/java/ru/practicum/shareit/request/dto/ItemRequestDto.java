@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -16,4 +17,5 @@ public class ItemRequestDto {
     private String description;
     private Long requestorId;
     private LocalDateTime created;
+    private List<RequestItemDto> items;
 }
\ No newline at end of file
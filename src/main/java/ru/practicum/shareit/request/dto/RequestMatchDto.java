@@ -0,0 +1,23 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Открытый запрос, к которому подходит вещь владельца, с оценкой совпадения (чем больше, тем лучше).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestMatchDto {
+    private Long id;
+    private String description;
+    private Long requestorId;
+    private LocalDateTime created;
+    private double score;
+}
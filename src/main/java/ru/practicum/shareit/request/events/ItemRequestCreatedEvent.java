@@ -0,0 +1,9 @@
+package ru.practicum.shareit.request.events;
+
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+/**
+ * Создан запрос на вещь. Публикуется внутри транзакции создания, подписчикам уходит только после её фиксации.
+ */
+public record ItemRequestCreatedEvent(ItemRequestDto request) {
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.request.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.common.sse.SseStream;
+import ru.practicum.shareit.common.sse.SseStreams;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+/**
+ * Общий SSE-поток новых запросов на вещи: владельцы узнают о спросе сразу, не опрашивая {@code /requests/all}.
+ * <p>
+ * У всех подписчиков один канал. Событие записывается в его буфер один раз, и каждый подписчик
+ * читает буфер сам, поэтому публикация не зависит от числа и скорости клиентов.
+ * Собственные запросы подписчика тоже приходят в поток: их отличает поле {@code requestorId}.
+ */
+@Slf4j
+@Component
+public class ItemRequestFeed {
+
+    private static final String FEED = "all";
+
+    private final SseStream<String> stream;
+    private final UserRepository userRepository;
+
+    public ItemRequestFeed(SseStreams streams, UserRepository userRepository) {
+        this.stream = streams.create("requests");
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Открывает поток новых запросов.
+     *
+     * @param lastEventId значение заголовка {@code Last-Event-ID} при переподключении
+     * @throws NotFoundException если пользователь не найден
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден: " + userId);
+        }
+        log.debug("Подписка на новые запросы: userId = {}, Last-Event-ID = {}", userId, lastEventId);
+        return stream.subscribe(FEED, lastEventId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        stream.publish(FEED, "request-created", event.request());
+    }
+}
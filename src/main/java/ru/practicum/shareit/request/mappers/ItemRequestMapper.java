@@ -1,23 +1,47 @@
 package ru.practicum.shareit.request.mappers;
 
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestItemDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 public class ItemRequestMapper {
 
     public static ItemRequestDto toDto(ItemRequest request) {
+        return toDto(request, List.of());
+    }
+
+    public static ItemRequestDto toDto(ItemRequest request, List<Item> items) {
         if (request == null) return null;
         return ItemRequestDto.builder()
                 .id(request.getId())
                 .description(request.getDescription())
                 .requestorId(request.getRequestor() != null ? request.getRequestor().getId() : null)
                 .created(request.getCreated())
+                .items(items.stream().map(ItemRequestMapper::toRequestItemDto).collect(Collectors.toList()))
                 .build();
     }
 
+    public static RequestMatchDto toMatchDto(ItemRequest request, double score) {
+        return RequestMatchDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .requestorId(request.getRequestor() != null ? request.getRequestor().getId() : null)
+                .created(request.getCreated())
+                .score(score)
+                .build();
+    }
+
+    public static RequestItemDto toRequestItemDto(Item item) {
+        return new RequestItemDto(item.getId(), item.getName(), item.getOwner().getId());
+    }
+
     public static ItemRequest toEntity(ItemRequestDto dto, User requestor) {
         if (dto == null) return null;
         return new ItemRequest(dto.getId(), dto.getDescription(),
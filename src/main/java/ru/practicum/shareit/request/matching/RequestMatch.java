@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.matching;
+
+import java.util.Comparator;
+
+/**
+ * Открытый запрос, подходящий к вещи, и насколько хорошо он подходит.
+ */
+public record RequestMatch(long requestId, double score) {
+
+    /**
+     * Порядок выдачи: сначала лучше подходящие, при равной оценке — более новые запросы.
+     */
+    public static final Comparator<RequestMatch> BY_RANK = Comparator.comparingDouble(RequestMatch::score).reversed()
+            .thenComparing(Comparator.comparingLong(RequestMatch::requestId).reversed());
+}
@@ -0,0 +1,290 @@
+package ru.practicum.shareit.request.matching;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс в памяти по описаниям открытых запросов: подбирает запросы, на которые
+ * может ответить вещь. Запрос открыт, пока к нему не привязана ни одна вещь.
+ * <p>
+ * Слова описания приводятся к основе — первым {@value #STEM_LENGTH} буквам, чтобы «дрель» и «дрели»
+ * совпадали. Оценка запроса — сумма IDF общих с вещью основ; основа из названия вещи весит вдвое больше,
+ * чем из описания. Основы, которые встречаются в большой доле запросов («нужна», «срочно»),
+ * не различают запросы и при подборе пропускаются. Списки запросов по основам отсортированы,
+ * и подбор сливает их за один проход, не заводя таблицу оценок по всем кандидатам.
+ */
+@Slf4j
+@Component
+public class RequestMatchIndex {
+
+    private static final int STEM_LENGTH = 4;
+    private static final int MIN_WORD_LENGTH = 3;
+    private static final int WARM_UP_BATCH_SIZE = 10_000;
+
+    private static final double NAME_WEIGHT = 2;
+    private static final double DESCRIPTION_WEIGHT = 1;
+
+    /**
+     * Основа, которая встречается в большей доле открытых запросов, не учитывается,
+     * если запросов не меньше {@link #MIN_REQUESTS_FOR_SHARE}.
+     */
+    private static final double MAX_REQUEST_SHARE = 0.2;
+    private static final int MIN_REQUESTS_FOR_SHARE = 100;
+
+    private final ItemRequestRepository requestRepository;
+
+    private final Map<Long, OpenRequest> requests = new HashMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public RequestMatchIndex(ItemRequestRepository requestRepository) {
+        this.requestRepository = requestRepository;
+    }
+
+    @PostConstruct
+    void warmUp() {
+        long afterId = 0;
+        List<ItemRequest> batch;
+        do {
+            batch = requestRepository.findOpenAfter(afterId, PageRequest.of(0, WARM_UP_BATCH_SIZE));
+            batch.forEach(this::add);
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == WARM_UP_BATCH_SIZE);
+        log.info("Индекс подбора запросов построен: открытых запросов = {}, основ = {}",
+                requests.size(), postings.size());
+    }
+
+    /**
+     * Добавляет открытый запрос в индекс. Вызывается после фиксации создания запроса.
+     */
+    public void add(ItemRequest request) {
+        OpenRequest document = new OpenRequest(request.getRequestor().getId(), stems(request.getDescription()));
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(request.getId());
+            requests.put(request.getId(), document);
+            for (String stem : document.stems()) {
+                postings.computeIfAbsent(stem, s -> new PostingList()).add(request.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Убирает запрос из индекса. Вызывается после фиксации привязки к нему вещи.
+     */
+    public void remove(Long requestId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(requestId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Подбирает открытые запросы к вещи по её названию и описанию.
+     *
+     * @param name                название вещи
+     * @param description         описание вещи
+     * @param excludedRequestorId владелец вещи: его собственные запросы не подбираются
+     * @param limit               максимальное число результатов
+     * @return подходящие запросы в порядке {@link RequestMatch#BY_RANK}
+     */
+    public List<RequestMatch> match(String name, String description, Long excludedRequestorId, int limit) {
+        Map<String, Double> weights = new HashMap<>();
+        for (String stem : stems(description)) {
+            weights.put(stem, DESCRIPTION_WEIGHT);
+        }
+        for (String stem : stems(name)) {
+            weights.put(stem, NAME_WEIGHT);
+        }
+
+        PriorityQueue<RequestMatch> top = new PriorityQueue<>(RequestMatch.BY_RANK.reversed());
+        lock.readLock().lock();
+        try {
+            int total = requests.size();
+            int maxPostings = total >= MIN_REQUESTS_FOR_SHARE ? (int) (total * MAX_REQUEST_SHARE) : total;
+            List<PostingList> lists = new ArrayList<>();
+            List<Double> contributions = new ArrayList<>();
+            weights.forEach((stem, weight) -> {
+                PostingList list = postings.get(stem);
+                if (list != null && list.size() <= maxPostings) {
+                    lists.add(list);
+                    contributions.add(weight * Math.log(1 + (double) total / list.size()));
+                }
+            });
+            collectTop(lists, contributions, excludedRequestorId, limit, top);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<RequestMatch> matches = new ArrayList<>(top);
+        matches.sort(RequestMatch.BY_RANK);
+        return matches;
+    }
+
+    /**
+     * Сливает отсортированные списки запросов по основам вещи от новых запросов к старым: каждый запрос
+     * встречается один раз с суммой вкладов своих списков, поэтому оценки не копятся в отдельной таблице.
+     * При равной оценке более новый запрос уже пройден, так что кандидат попадает в лучшие {@code limit}
+     * только со строго большей оценкой, и только для таких проверяется владелец запроса.
+     * Вызывается под блокировкой чтения.
+     */
+    private void collectTop(List<PostingList> lists, List<Double> contributions, Long excludedRequestorId,
+                            int limit, PriorityQueue<RequestMatch> top) {
+        int count = lists.size();
+        int[] positions = new int[count];
+        int[] heap = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = lists.get(i).size() - 1;
+            heap[i] = i;
+        }
+        int heapSize = count;
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(heap, heapSize, i, lists, positions);
+        }
+
+        while (heapSize > 0) {
+            long id = head(heap[0], lists, positions);
+            double score = 0;
+            while (heapSize > 0 && head(heap[0], lists, positions) == id) {
+                int list = heap[0];
+                score += contributions.get(list);
+                if (--positions[list] < 0) {
+                    heap[0] = heap[--heapSize];
+                }
+                siftDown(heap, heapSize, 0, lists, positions);
+            }
+
+            if ((top.size() < limit || score > top.peek().score())
+                    && !requests.get(id).requestorId().equals(excludedRequestorId)) {
+                top.add(new RequestMatch(id, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Куча индексов списков, наверху — список с наибольшим текущим идентификатором.
+     */
+    private static void siftDown(int[] heap, int heapSize, int index, List<PostingList> lists, int[] positions) {
+        while (true) {
+            int largest = index;
+            for (int child = 2 * index + 1; child <= 2 * index + 2 && child < heapSize; child++) {
+                if (head(heap[child], lists, positions) > head(heap[largest], lists, positions)) {
+                    largest = child;
+                }
+            }
+            if (largest == index) {
+                return;
+            }
+            int swap = heap[index];
+            heap[index] = heap[largest];
+            heap[largest] = swap;
+            index = largest;
+        }
+    }
+
+    private static long head(int list, List<PostingList> lists, int[] positions) {
+        return lists.get(list).get(positions[list]);
+    }
+
+    /**
+     * Вызывается под блокировкой записи.
+     */
+    private void removeLocked(Long requestId) {
+        OpenRequest previous = requests.remove(requestId);
+        if (previous == null) {
+            return;
+        }
+        for (String stem : previous.stems()) {
+            PostingList list = postings.get(stem);
+            list.remove(requestId);
+            if (list.isEmpty()) {
+                postings.remove(stem);
+            }
+        }
+    }
+
+    private static Set<String> stems(String text) {
+        Set<String> stems = new LinkedHashSet<>();
+        if (text == null) {
+            return stems;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= MIN_WORD_LENGTH) {
+                stems.add(word.length() > STEM_LENGTH ? word.substring(0, STEM_LENGTH) : word);
+            }
+        }
+        return stems;
+    }
+
+    private record OpenRequest(Long requestorId, Set<String> stems) {
+    }
+
+    /**
+     * Отсортированный по возрастанию список идентификаторов запросов.
+     * Идентификаторы выдаются базой по возрастанию, поэтому вставка почти всегда идёт в конец.
+     */
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        private long get(int index) {
+            return ids[index];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageParams;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -9,5 +11,5 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getRequestsByUser(Long userId);
 
-    List<ItemRequestDto> getAllRequests();
+    CursorPage<ItemRequestDto> getAllRequests(Long userId, PageParams page);
 }
@@ -1,18 +1,29 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageCursor;
+import ru.practicum.shareit.common.pagination.PageParams;
+import ru.practicum.shareit.common.utils.TransactionUtils;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.events.ItemRequestCreatedEvent;
 import ru.practicum.shareit.request.mappers.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.RequestMatchIndex;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,11 +33,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final RequestMatchIndex matchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ItemRequestServiceImpl(ItemRequestRepository requestRepository,
-                                  UserRepository userRepository) {
+                                  UserRepository userRepository,
+                                  ItemRepository itemRepository,
+                                  RequestMatchIndex matchIndex,
+                                  ApplicationEventPublisher eventPublisher) {
         this.requestRepository = requestRepository;
         this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.matchIndex = matchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -47,30 +67,71 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         request.setCreated(LocalDateTime.now());
 
         request = requestRepository.save(request);
+        ItemRequest indexed = request;
+        TransactionUtils.afterCommit(() -> matchIndex.add(indexed));
 
+        ItemRequestDto created = ItemRequestMapper.toDto(request);
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(created));
         log.info("Создан запрос id = {} пользователем id = {}", request.getId(), userId);
-        return ItemRequestMapper.toDto(request);
+        return created;
     }
 
     @Override
     public List<ItemRequestDto> getRequestsByUser(Long userId) {
         log.debug("Получение запросов пользователя id = {}", userId);
 
-        if (!userRepository.existsById(userId)) {
+        if (userRepository.findById(userId).isEmpty()) {
             throw new NotFoundException("Пользователь не найден: " + userId);
         }
 
-        return requestRepository.findAllByRequestorIdOrderByCreatedDesc(userId).stream()
-                .map(ItemRequestMapper::toDto)
-                .collect(Collectors.toList());
+        return toDtosWithItems(requestRepository.findAllByRequestorIdOrderByCreatedDesc(userId));
     }
 
+    /**
+     * Возвращает ленту запросов других пользователей, новые сверху. Собственные запросы пользователя
+     * в ленту не попадают: они доступны через {@link #getRequestsByUser(Long)}.
+     *
+     * @param userId идентификатор пользователя, просматривающего ленту
+     * @param page   курсор и размер страницы
+     * @return страница {@link ItemRequestDto} с вещями, добавленными в ответ на каждый запрос
+     * @throws NotFoundException если пользователь не найден
+     */
     @Override
-    public List<ItemRequestDto> getAllRequests() {
-        log.debug("Получение всех запросов на вещи");
+    public CursorPage<ItemRequestDto> getAllRequests(Long userId, PageParams page) {
+        log.debug("Получение ленты запросов для пользователя id = {}: limit = {}", userId, page.getLimit());
+
+        if (userRepository.findById(userId).isEmpty()) {
+            throw new NotFoundException("Пользователь не найден: " + userId);
+        }
+
+        List<ItemRequest> rows = requestRepository.findPageOfOthers(userId, page.afterTimeDescending(),
+                page.afterIdDescending(), page.probe());
+        CursorPage<ItemRequest> requests = CursorPage.of(rows, page,
+                r -> PageCursor.of(r.getCreated(), r.getId()), Function.identity());
+        return new CursorPage<>(toDtosWithItems(requests.getItems()), requests.getNextCursor());
+    }
+
+    /**
+     * Добавляет к запросам вещи, созданные в ответ на них. Вещи всех запросов загружаются одним запросом
+     * к базе и группируются в памяти.
+     *
+     * @param requests запросы в нужном порядке
+     * @return список {@link ItemRequestDto} в порядке исходного списка
+     */
+    private List<ItemRequestDto> toDtosWithItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
 
-        return requestRepository.findAllByOrderByCreatedDesc().stream()
-                .map(ItemRequestMapper::toDto)
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toDto(request,
+                        itemsByRequest.getOrDefault(request.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -1,12 +1,38 @@
 package ru.practicum.shareit.request.storage;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(Long requestorId);
 
-    List<ItemRequest> findAllByOrderByCreatedDesc();
-}
\ No newline at end of file
+    /**
+     * Страница запросов других пользователей, новые сверху.
+     */
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id <> :userId " +
+            "AND (r.created < :afterCreated OR (r.created = :afterCreated AND r.id < :afterId)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findPageOfOthers(Long userId, LocalDateTime afterCreated, Long afterId, Pageable pageable);
+
+    /**
+     * Открытые запросы (без привязанных вещей) по возрастанию идентификатора, начиная после {@code afterId}.
+     */
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.id > :afterId AND NOT EXISTS (SELECT i.id FROM Item i WHERE i.request = r) " +
+            "ORDER BY r.id")
+    List<ItemRequest> findOpenAfter(Long afterId, Pageable pageable);
+
+    /**
+     * Запросы из списка, к которым ещё не привязана ни одна вещь.
+     */
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.id IN :ids AND NOT EXISTS (SELECT i.id FROM Item i WHERE i.request = r)")
+    List<ItemRequest> findOpenByIdIn(Collection<Long> ids);
+}
@@ -1,9 +1,9 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageParams;
 import ru.practicum.shareit.user.dto.UserDto;
 
-import java.util.List;
-
 public interface UserService {
     UserDto createUser(UserDto dto);
 
@@ -11,7 +11,7 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
-    List<UserDto> getAllUsers();
+    CursorPage<UserDto> getAllUsers(PageParams page);
 
     void deleteUser(Long userId);
 }
\ No newline at end of file
@@ -5,13 +5,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.common.exceptions.DuplicatedDataException;
 import ru.practicum.shareit.common.exceptions.NotFoundException;
+import ru.practicum.shareit.common.pagination.CursorPage;
+import ru.practicum.shareit.common.pagination.PageCursor;
+import ru.practicum.shareit.common.pagination.PageParams;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -101,17 +103,17 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Возвращает список всех пользователей в системе.
+     * Возвращает страницу пользователей в порядке возрастания идентификатора.
      *
-     * @return список {@link UserDto}
+     * @param page курсор и размер страницы
+     * @return страница {@link UserDto}
      */
     @Override
-    public List<UserDto> getAllUsers() {
-        log.debug("Получение списка всех пользователей");
+    public CursorPage<UserDto> getAllUsers(PageParams page) {
+        log.debug("Получение списка пользователей: limit = {}", page.getLimit());
 
-        return userRepository.findAll().stream()
-                .map(UserMapper::toUserDto)
-                .collect(Collectors.toList());
+        List<User> users = userRepository.findAllByIdGreaterThanOrderByIdAsc(page.afterIdAscending(), page.probe());
+        return CursorPage.of(users, page, user -> PageCursor.of(user.getId()), UserMapper::toUserDto);
     }
 
     /**
@@ -125,11 +127,10 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long userId) {
         log.debug("Удаление пользователя id = {}", userId);
 
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("Пользователь не найден: " + userId);
-        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + userId));
 
-        userRepository.deleteById(userId);
+        userRepository.delete(user);
         log.info("Пользователь удалён: id = {}", userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+-- Исходная схема; совпадает с той, что раньше создавал Hibernate (ddl-auto=update).
+-- На базах, созданных до перехода на Flyway, эта миграция пропускается (baseline-on-migrate).
+
+CREATE TABLE users
+(
+    id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name  VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    CONSTRAINT uq_users_email UNIQUE (email)
+);
+
+CREATE TABLE requests
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description  VARCHAR(255) NOT NULL,
+    requestor_id BIGINT       NOT NULL,
+    created      TIMESTAMP    NOT NULL,
+    CONSTRAINT fk_requests_requestor FOREIGN KEY (requestor_id) REFERENCES users (id)
+);
+
+CREATE TABLE items
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL,
+    description  VARCHAR(255),
+    is_available BOOLEAN      NOT NULL,
+    owner_id     BIGINT       NOT NULL,
+    request_id   BIGINT,
+    CONSTRAINT fk_items_owner FOREIGN KEY (owner_id) REFERENCES users (id),
+    CONSTRAINT fk_items_request FOREIGN KEY (request_id) REFERENCES requests (id)
+);
+
+CREATE TABLE bookings
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    start_date TIMESTAMP    NOT NULL,
+    end_date   TIMESTAMP    NOT NULL,
+    item_id    BIGINT       NOT NULL,
+    booker_id  BIGINT       NOT NULL,
+    status     VARCHAR(255) NOT NULL,
+    CONSTRAINT fk_bookings_item FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_bookings_booker FOREIGN KEY (booker_id) REFERENCES users (id),
+    CONSTRAINT ck_bookings_status CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED'))
+);
+
+CREATE TABLE comments
+(
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    text      VARCHAR(1000) NOT NULL,
+    item_id   BIGINT        NOT NULL,
+    author_id BIGINT        NOT NULL,
+    created   TIMESTAMP     NOT NULL,
+    CONSTRAINT fk_comments_item FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_comments_author FOREIGN KEY (author_id) REFERENCES users (id)
+);
@@ -0,0 +1,26 @@
+-- Индексы под запросы репозиториев. Что каждый из них даёт, показывает
+-- BookingQueryPlans (профиль perf): EXPLAIN ANALYZE на наборе данных DatasetGenerator.
+
+-- Списки бронирований пользователя: WHERE booker_id = ? ORDER BY start_date DESC, id DESC с курсором.
+-- Индекс читается в обратном порядке и отдаёт первую страницу без сортировки.
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date, id);
+
+-- То же для WAITING и REJECTED. Отдельный индекс по одному status планировщик не выбирает:
+-- статусов четыре, а фильтр по статусу всегда идёт вместе с booker_id или item_id.
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_date, id);
+
+-- Последнее завершённое бронирование вещи (end_date < now) и проверка права оставить комментарий.
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, end_date);
+
+-- Ближайшее будущее бронирование вещи, интервалы вещи для проверки пересечений
+-- и бронирования вещей владельца (вложенный цикл по его вещам).
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date);
+
+-- Вещи владельца: постранично по id и как внешняя сторона соединения в списках бронирований владельца.
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+
+-- Комментарии к вещи (или к странице вещей) в порядке создания.
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created);
+
+-- Собственные запросы пользователя, новые сверху.
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created);
@@ -0,0 +1,17 @@
+-- Владелец вещи в самом бронировании: запросы владельца отбирают страницу по индексу bookings
+-- без соединения с items. Владелец вещи не меняется, поэтому копия не расходится с оригиналом.
+
+ALTER TABLE bookings ADD COLUMN owner_id BIGINT;
+
+UPDATE bookings
+SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id);
+
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_owner FOREIGN KEY (owner_id) REFERENCES users (id);
+
+-- Списки бронирований владельца: WHERE owner_id = ? ORDER BY start_date DESC, id DESC с курсором,
+-- для CURRENT/PAST/FUTURE и ближайшей границы — с дополнительным условием по датам.
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_date, id);
+
+-- То же для WAITING и REJECTED.
+CREATE INDEX IF NOT EXISTS bookings_owner_status_start_idx ON bookings (owner_id, status, start_date, id);
@@ -0,0 +1,22 @@
+-- Последнее и следующее бронирование каждой вещи для списков вещей владельца (ItemBookingSummaryService).
+-- refresh_at — момент, когда значения устареют; NULL — не устареют, пока не изменятся бронирования вещи.
+
+CREATE TABLE item_booking_summary
+(
+    item_id         BIGINT PRIMARY KEY,
+    last_booking_id BIGINT,
+    next_booking_id BIGINT,
+    refresh_at      TIMESTAMP,
+    CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_item_booking_summary_last FOREIGN KEY (last_booking_id) REFERENCES bookings (id),
+    CONSTRAINT fk_item_booking_summary_next FOREIGN KEY (next_booking_id) REFERENCES bookings (id)
+);
+
+-- Периодический пересчёт выбирает сводки с наступившим refresh_at.
+CREATE INDEX IF NOT EXISTS item_booking_summary_refresh_idx ON item_booking_summary (refresh_at);
+
+-- Сводки существующих вещей сразу устаревшие: их заполнит периодический пересчёт,
+-- а до тех пор последнее и следующее бронирование ищутся запросами к bookings.
+INSERT INTO item_booking_summary (item_id, refresh_at)
+SELECT id, TIMESTAMP '1970-01-01 00:00:00'
+FROM items;
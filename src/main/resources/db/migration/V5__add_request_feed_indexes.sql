@@ -0,0 +1,6 @@
+-- Лента чужих запросов: ORDER BY created DESC, id DESC с курсором. Индекс читается в обратном порядке
+-- и отдаёт первую страницу без сортировки; собственные запросы пользователя отсеиваются фильтром.
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created, id);
+
+-- Вещи, добавленные в ответ на запросы страницы ленты: WHERE request_id IN (...).
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
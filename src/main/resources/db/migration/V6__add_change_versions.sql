@@ -0,0 +1,18 @@
+-- Версия последнего изменения строки для синхронизации «изменения после токена»: выдаётся ChangeClock
+-- при каждой записи и только растёт. Существующим строкам версией служит идентификатор,
+-- новые версии продолжают наибольшую из них.
+
+ALTER TABLE items ADD COLUMN change_version BIGINT;
+UPDATE items SET change_version = id;
+ALTER TABLE items ALTER COLUMN change_version SET NOT NULL;
+
+ALTER TABLE bookings ADD COLUMN change_version BIGINT;
+UPDATE bookings SET change_version = id;
+ALTER TABLE bookings ALTER COLUMN change_version SET NOT NULL;
+
+-- Изменения вещей владельца: WHERE owner_id = ? AND change_version > ? ORDER BY change_version.
+CREATE INDEX IF NOT EXISTS items_owner_change_idx ON items (owner_id, change_version);
+
+-- Изменения бронирований пользователя и владельца вещей — то же по booker_id и owner_id.
+CREATE INDEX IF NOT EXISTS bookings_booker_change_idx ON bookings (booker_id, change_version);
+CREATE INDEX IF NOT EXISTS bookings_owner_change_idx ON bookings (owner_id, change_version);
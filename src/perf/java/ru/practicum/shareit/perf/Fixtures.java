@@ -0,0 +1,126 @@
+package ru.practicum.shareit.perf;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Детерминированные наборы сущностей для бенчмарков: вещи с описаниями, комментариями
+ * и бронированиями, по размеру близкие к данным в продуктиве.
+ */
+public class Fixtures {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final String[] NAMES = {"Дрель", "Перфоратор", "Шуруповёрт", "Палатка", "Велосипед",
+            "Лестница", "Болгарка", "Проектор", "Сапборд", "Пила"};
+    private static final String[] WORDS = {"мощная", "аккумуляторная", "почти", "новая", "с", "кейсом",
+            "для", "дома", "и", "дачи", "лёгкая", "складная", "комплект", "насадок"};
+
+    private final Random random;
+    private final List<User> users = new ArrayList<>();
+
+    public Fixtures(long seed, int userCount) {
+        this.random = new Random(seed);
+        for (long id = 1; id <= userCount; id++) {
+            users.add(User.builder().id(id).name("Пользователь " + id).email("user" + id + "@example.com").build());
+        }
+    }
+
+    public List<Item> items(int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            ItemRequest request = random.nextInt(5) == 0 ? ItemRequest.builder().id(id).build() : null;
+            items.add(Item.builder()
+                    .id(id)
+                    .name(NAMES[random.nextInt(NAMES.length)] + " " + id)
+                    .description(sentence(8 + random.nextInt(12)))
+                    .available(random.nextInt(10) > 0)
+                    .owner(user())
+                    .request(request)
+                    .build());
+        }
+        return items;
+    }
+
+    public List<ItemRequest> requests(int count) {
+        List<ItemRequest> requests = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            requests.add(ItemRequest.builder()
+                    .id(id)
+                    .description("Нужна " + NAMES[random.nextInt(NAMES.length)].toLowerCase() + ", " + sentence(6))
+                    .requestor(user())
+                    .created(BASE.minusMinutes(id))
+                    .build());
+        }
+        return requests;
+    }
+
+    public List<Comment> comments(Item item, int count) {
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            comments.add(Comment.builder()
+                    .id(item.getId() * 100 + i)
+                    .text(sentence(5 + random.nextInt(20)))
+                    .item(item)
+                    .author(user())
+                    .created(BASE.minusHours(random.nextInt(10_000)))
+                    .build());
+        }
+        return comments;
+    }
+
+    public List<Booking> bookings(List<Item> items, int count) {
+        List<Booking> bookings = new ArrayList<>(count);
+        BookingStatus[] statuses = BookingStatus.values();
+        for (long id = 1; id <= count; id++) {
+            LocalDateTime start = BASE.plusHours(random.nextInt(20_000) - 10_000);
+            Item item = items.get(random.nextInt(items.size()));
+            bookings.add(Booking.builder()
+                    .id(id)
+                    .start(start)
+                    .end(start.plusHours(1 + random.nextInt(72)))
+                    .item(item)
+                    .booker(user())
+                    .owner(item.getOwner())
+                    .status(statuses[random.nextInt(statuses.length)])
+                    .build());
+        }
+        return bookings;
+    }
+
+    public Booking booking(Item item) {
+        LocalDateTime start = BASE.plusHours(random.nextInt(1_000));
+        return Booking.builder()
+                .id((long) random.nextInt(1_000_000))
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(user())
+                .owner(item.getOwner())
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+    private User user() {
+        return users.get(random.nextInt(users.size()));
+    }
+
+    private String sentence(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.perf;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mappers.BookingResponseMapper;
+import ru.practicum.shareit.common.config.JacksonConfig;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация страниц ответа через {@link ObjectMapper} из {@link JacksonConfig}.
+ * {@code *Mapper} — через {@code writeValueAsBytes}, как при каждом ответе контроллера;
+ * {@code *Writer} — через заранее подготовленный {@link ObjectWriter} для сравнения.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter itemsWriter;
+    private ObjectWriter bookingsWriter;
+    private List<ItemDto> items;
+    private List<BookingResponseDto> bookings;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        itemsWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ItemDto.class));
+        bookingsWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, BookingResponseDto.class));
+
+        Fixtures fixtures = new Fixtures(42, 1_000);
+        List<Item> entities = fixtures.items(pageSize);
+        items = new ArrayList<>(pageSize);
+        for (Item item : entities) {
+            items.add(ItemMapper.toItemDto(item, fixtures.booking(item), fixtures.booking(item),
+                    fixtures.comments(item, 5)));
+        }
+        bookings = new ArrayList<>(pageSize);
+        for (Booking booking : fixtures.bookings(entities, pageSize)) {
+            bookings.add(BookingResponseMapper.toBookingResponseDto(booking));
+        }
+    }
+
+    @Benchmark
+    public byte[] itemsMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] itemsWriter() throws JsonProcessingException {
+        return itemsWriter.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] bookingsMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] bookingsWriter() throws JsonProcessingException {
+        return bookingsWriter.writeValueAsBytes(bookings);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mappers.BookingResponseMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость маппинга сущностей в DTO для одной страницы ответа.
+ * Аллокации смотреть профайлером {@code -prof gc} (включён по умолчанию в профиле perf).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    @Param({"5"})
+    private int commentsPerItem;
+
+    private List<Item> items;
+    private List<List<Comment>> comments;
+    private List<Booking> lastBookings;
+    private List<Booking> nextBookings;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = new Fixtures(42, 1_000);
+        items = fixtures.items(pageSize);
+        comments = new ArrayList<>(pageSize);
+        lastBookings = new ArrayList<>(pageSize);
+        nextBookings = new ArrayList<>(pageSize);
+        for (Item item : items) {
+            comments.add(fixtures.comments(item, commentsPerItem));
+            lastBookings.add(fixtures.booking(item));
+            nextBookings.add(fixtures.booking(item));
+        }
+        bookings = fixtures.bookings(items, pageSize);
+    }
+
+    @Benchmark
+    public List<ItemDto> itemsWithBookingsAndComments() {
+        List<ItemDto> result = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            result.add(ItemMapper.toItemDto(items.get(i), lastBookings.get(i), nextBookings.get(i), comments.get(i)));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ItemDto> itemsOnly() {
+        List<ItemDto> result = new ArrayList<>(items.size());
+        for (Item item : items) {
+            result.add(ItemMapper.toItemDto(item));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> bookingResponses() {
+        List<BookingResponseDto> result = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            result.add(BookingResponseMapper.toBookingResponseDto(booking));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<CommentDto> comments() {
+        List<CommentDto> result = new ArrayList<>();
+        for (List<Comment> itemComments : comments) {
+            for (Comment comment : itemComments) {
+                result.add(CommentMapper.toDto(comment));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.matching.RequestMatch;
+import ru.practicum.shareit.request.matching.RequestMatchIndex;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подбор открытых запросов к новой вещи по индексу {@link RequestMatchIndex} в зависимости от числа запросов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestMatchBenchmark {
+
+    private static final int ITEMS = 100;
+
+    @Param({"1000", "100000"})
+    private int openRequests;
+
+    private RequestMatchIndex index;
+    private List<Item> items;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = new Fixtures(42, 10_000);
+        index = new RequestMatchIndex(null);
+        fixtures.requests(openRequests).forEach(index::add);
+        items = fixtures.items(ITEMS);
+    }
+
+    @Benchmark
+    public List<RequestMatch> matchNewItem() {
+        Item item = items.get(next++ % ITEMS);
+        return index.match(item.getName(), item.getDescription(), item.getOwner().getId(), 10);
+    }
+}
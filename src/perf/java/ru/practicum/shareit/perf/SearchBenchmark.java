@@ -0,0 +1,138 @@
+package ru.practicum.shareit.perf;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.search.InMemoryItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.JpaItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchHit;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.perf.data.DatasetGenerator;
+import ru.practicum.shareit.perf.data.DatasetSpec;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Первая и вторая страницы поиска вещей: триграммный индекс в памяти ({@link InMemoryItemSearchIndex}) против
+ * {@code LIKE}-запроса к базе ({@link JpaItemSearchIndex}, {@code ItemRepository.searchAvailableIdsByText})
+ * на наборе из {@code items} вещей, созданном {@link DatasetGenerator} в H2 в памяти.
+ * Измеряется только отбор идентификаторов: загрузка найденных вещей по ним у обоих вариантов одинакова.
+ * <p>
+ * Оба варианта находят одни и те же вещи, но в разном порядке: индекс в памяти ранжирует все совпадения
+ * и поэтому дороже для частых слов, а {@code LIKE} отдаёт первые по id и останавливается на странице,
+ * зато редкое слово ищет полным проходом. Вторая страница индекса берётся из закэшированного ранжирования.
+ * <p>
+ * Подготовка миллиона вещей занимает около минуты; для быстрой проверки: {@code -p items=100000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:search-benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DB_CLOSE_DELAY=-1";
+    private static final int PAGE = 100;
+
+    @Param({"1000000"})
+    private int items;
+
+    /**
+     * Частое слово названия, слово описания и редкая подстрока (часть идентификатора в названии).
+     */
+    @Param({"дрель", "аккумуляторная", "4242"})
+    private String text;
+
+    private ConfigurableApplicationContext app;
+    private ItemSearchIndex memoryIndex;
+    private ItemSearchIndex databaseIndex;
+    private SearchHit memoryAfter;
+    private SearchHit databaseAfter;
+
+    @Setup
+    public void setUp() throws SQLException {
+        DatasetSpec spec = new DatasetSpec();
+        spec.setUrl(URL);
+        spec.setUser("sa");
+        spec.setPassword("");
+        spec.setMode(DatasetSpec.Mode.BATCH);
+        spec.setItems(items);
+        spec.setUsers(Math.max(1_000, items / 10));
+        spec.setRequests(0);
+        spec.setBookings(0);
+        spec.setComments(0);
+
+        Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            new DatasetGenerator(spec).generate(connection);
+        }
+
+        app = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + URL,
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--shareit.search.backend=memory",
+                        "--shareit.sql-budget.mode=off",
+                        "--logging.level.ru.practicum.shareit=INFO");
+        memoryIndex = app.getBean(InMemoryItemSearchIndex.class);
+        databaseIndex = new JpaItemSearchIndex(app.getBean(ItemRepository.class));
+        List<SearchHit> memoryFirst = memory();
+        List<SearchHit> databaseFirst = database();
+        if (memoryFirst.isEmpty() || databaseFirst.isEmpty()) {
+            throw new IllegalStateException("Запрос «" + text + "» ничего не находит, сравнивать нечего");
+        }
+        // У редкого запроса второй страницы может не быть: тогда измеряется пустой ответ после последнего
+        memoryAfter = memoryFirst.get(Math.min(PAGE, memoryFirst.size()) - 1);
+        databaseAfter = databaseFirst.get(Math.min(PAGE, databaseFirst.size()) - 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public List<SearchHit> memory() {
+        return memoryIndex.search(text, null, PAGE + 1);
+    }
+
+    @Benchmark
+    public List<SearchHit> database() {
+        return databaseIndex.search(text, null, PAGE + 1);
+    }
+
+    @Benchmark
+    public List<SearchHit> memoryNextPage() {
+        return memoryIndex.search(text, memoryAfter, PAGE + 1);
+    }
+
+    @Benchmark
+    public List<SearchHit> databaseNextPage() {
+        return databaseIndex.search(text, databaseAfter, PAGE + 1);
+    }
+}
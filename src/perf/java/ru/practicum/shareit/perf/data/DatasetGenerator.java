@@ -0,0 +1,273 @@
+package ru.practicum.shareit.perf.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Генератор синтетического набора данных для нагрузочных проверок.
+ * <p>
+ * Доводит схему до последней версии миграциями приложения и заполняет её пользователями, запросами,
+ * вещами, бронированиями и комментариями. Перед загрузкой таблицы очищаются, идентификаторы задаются явно,
+ * а последовательности затем переставляются за последний идентификатор, чтобы приложение могло
+ * продолжать вставки.
+ * <p>
+ * Владельцы вещей и популярность вещей распределены по Ципфу. Бронирования одной вещи не пересекаются:
+ * окно {@code [anchor - windowDays/2, anchor + windowDays/2]} делится между ними поровну,
+ * поэтому есть прошедшие, текущие и будущие бронирования. Бронирование длится не меньше минуты,
+ * поэтому у вещи не больше {@code windowSeconds / 60} бронирований; лишние при больших пресетах
+ * достаются следующим по номеру вещам.
+ * <p>
+ * Запуск: {@code mvn -Pperf test-compile exec:exec@dataset -Ddataset.args="--preset=medium --seed=42"}.
+ */
+@Slf4j
+public class DatasetGenerator {
+
+    private static final String[] NAMES = {"Дрель", "Перфоратор", "Шуруповёрт", "Палатка", "Велосипед",
+            "Лестница", "Болгарка", "Проектор", "Сапборд", "Пила", "Фотоаппарат", "Спальник", "Гитара"};
+    private static final String[] WORDS = {"мощная", "аккумуляторная", "почти", "новая", "с", "кейсом",
+            "для", "дома", "и", "дачи", "лёгкая", "складная", "комплект", "насадок", "бережно", "отдам",
+            "на", "выходные", "нужна", "срочно"};
+    private static final List<String> TABLES = List.of("comments", "bookings", "items", "requests", "users");
+    private static final String SUMMARY_TABLE = "item_booking_summary";
+    private static final long MIN_BOOKING_SECONDS = 60;
+
+    private final DatasetSpec spec;
+    private final LocalDateTime windowStart;
+    private final long windowSeconds;
+    private int[] itemOwners;
+
+    public DatasetGenerator(DatasetSpec spec) {
+        this.spec = spec;
+        this.windowSeconds = Duration.ofDays(spec.getWindowDays()).toSeconds();
+        this.windowStart = spec.getAnchor().minusSeconds(windowSeconds / 2);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        DatasetSpec spec = DatasetSpec.parse(args);
+        Flyway.configure()
+                .dataSource(spec.getUrl(), spec.getUser(), spec.getPassword())
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+        try (Connection connection = DriverManager.getConnection(spec.getUrl(), spec.getUser(), spec.getPassword())) {
+            new DatasetGenerator(spec).generate(connection);
+        }
+    }
+
+    public void generate(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        boolean postgres = connection.getMetaData().getDatabaseProductName().equals("PostgreSQL");
+        boolean copy = spec.getMode() == DatasetSpec.Mode.COPY
+                || spec.getMode() == DatasetSpec.Mode.AUTO && postgres;
+        log.info("Генерация: {}, режим = {}", spec, copy ? "COPY" : "BATCH");
+
+        long startedAt = System.nanoTime();
+        truncate(connection, postgres);
+        load(connection, copy, "users", new String[]{"id", "name", "email"}, this::users);
+        load(connection, copy, "requests", new String[]{"id", "description", "requestor_id", "created"}, this::requests);
+        load(connection, copy, "items",
+                new String[]{"id", "name", "description", "is_available", "owner_id", "request_id", "change_version"}, this::items);
+        load(connection, copy, "bookings",
+                new String[]{"id", "start_date", "end_date", "item_id", "booker_id", "owner_id", "status", "change_version"},
+                this::bookings);
+        load(connection, copy, "comments", new String[]{"id", "text", "item_id", "author_id", "created"}, this::comments);
+        markSummariesStale(connection);
+        restartIdentities(connection, postgres);
+        log.info("Генерация завершена за {} с", Duration.ofNanos(System.nanoTime() - startedAt).toSeconds());
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        void writeTo(TableWriter writer) throws SQLException;
+    }
+
+    private void load(Connection connection, boolean copy, String table, String[] columns, RowSource source)
+            throws SQLException {
+        long startedAt = System.nanoTime();
+        long rows;
+        try (TableWriter writer = copy
+                ? new CopyTableWriter(connection, table, columns)
+                : new JdbcBatchTableWriter(connection, table, columns, spec.getBatchSize())) {
+            source.writeTo(writer);
+            rows = writer.rows();
+        }
+        long millis = Math.max(1, Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+        log.info("{}: {} строк за {} мс ({} строк/с)", table, rows, millis, rows * 1000 / millis);
+    }
+
+    private void users(TableWriter writer) throws SQLException {
+        for (long id = 1; id <= spec.getUsers(); id++) {
+            writer.row(id, "Пользователь " + id, "user" + id + "@example.com");
+        }
+    }
+
+    private void requests(TableWriter writer) throws SQLException {
+        Random random = random(1);
+        for (long id = 1; id <= spec.getRequests(); id++) {
+            writer.row(id, "Нужна " + NAMES[random.nextInt(NAMES.length)].toLowerCase() + ", " + sentence(random, 6),
+                    1 + random.nextInt(spec.getUsers()), pastMoment(random));
+        }
+    }
+
+    private void items(TableWriter writer) throws SQLException {
+        Random random = random(2);
+        ZipfSampler owners = new ZipfSampler(spec.getUsers(), spec.getOwnerSkew(), spec.getSeed());
+        itemOwners = new int[spec.getItems() + 1];
+        for (int id = 1; id <= spec.getItems(); id++) {
+            int owner = owners.sample(random);
+            itemOwners[id] = owner;
+            Long request = spec.getRequests() > 0 && random.nextDouble() < spec.getItemsWithRequest()
+                    ? (long) (1 + random.nextInt(spec.getRequests()))
+                    : null;
+            writer.row((long) id, NAMES[random.nextInt(NAMES.length)] + " " + id,
+                    sentence(random, 6 + random.nextInt(14)), random.nextInt(10) > 0, (long) owner, request,
+                    (long) id);
+        }
+    }
+
+    /**
+     * Первый проход считает бронирования каждой вещи, второй (с тем же генератором выбора вещей)
+     * раскладывает их по непересекающимся слотам окна. Слот не короче {@link #MIN_BOOKING_SECONDS},
+     * поэтому бронирование всегда помещается в свой слот.
+     */
+    private void bookings(TableWriter writer) throws SQLException {
+        long maxPerItem = windowSeconds / MIN_BOOKING_SECONDS;
+        if ((long) spec.getBookings() > maxPerItem * spec.getItems()) {
+            throw new IllegalArgumentException("Бронирований " + spec.getBookings() + " не помещается в окно: "
+                    + "не больше " + maxPerItem + " на каждую из " + spec.getItems() + " вещей");
+        }
+        ZipfSampler itemSampler = new ZipfSampler(spec.getItems(), spec.getItemSkew(), spec.getSeed() + 1);
+        int[] perItem = new int[spec.getItems() + 1];
+        Random choice = random(3);
+        for (int i = 0; i < spec.getBookings(); i++) {
+            perItem[withRoom(itemSampler.sample(choice), perItem, maxPerItem)]++;
+        }
+
+        int[] nextSlot = new int[spec.getItems() + 1];
+        choice = random(3);
+        Random random = random(4);
+        for (long id = 1; id <= spec.getBookings(); id++) {
+            int item = withRoom(itemSampler.sample(choice), nextSlot, maxPerItem);
+            long slotSeconds = windowSeconds / perItem[item];
+            long slotStart = slotSeconds * nextSlot[item]++;
+            long duration = Math.max(MIN_BOOKING_SECONDS, (long) (slotSeconds * (0.3 + 0.6 * random.nextDouble())));
+            long offset = slotSeconds > duration ? (long) ((slotSeconds - duration) * random.nextDouble()) : 0;
+            LocalDateTime start = windowStart.plusSeconds(slotStart + offset);
+            LocalDateTime end = start.plusSeconds(duration);
+            writer.row(id, start, end, (long) item, (long) booker(random, item), (long) itemOwners[item],
+                    status(random, start, end).name(), id);
+        }
+    }
+
+    private void comments(TableWriter writer) throws SQLException {
+        ZipfSampler itemSampler = new ZipfSampler(spec.getItems(), spec.getItemSkew(), spec.getSeed() + 1);
+        Random random = random(5);
+        for (long id = 1; id <= spec.getComments(); id++) {
+            int item = itemSampler.sample(random);
+            writer.row(id, sentence(random, 4 + random.nextInt(20)), (long) item, (long) booker(random, item),
+                    pastMoment(random));
+        }
+    }
+
+    /**
+     * Первая вещь начиная с {@code item}, у которой меньше {@code maxPerItem} бронирований.
+     * Оба прохода {@link #bookings} вызывают её с одинаковыми счётчиками, поэтому выбирают одни и те же вещи.
+     */
+    private int withRoom(int item, int[] counts, long maxPerItem) {
+        while (counts[item] >= maxPerItem) {
+            item = item % spec.getItems() + 1;
+        }
+        return item;
+    }
+
+    private int booker(Random random, int item) {
+        int booker = 1 + random.nextInt(spec.getUsers());
+        return booker != itemOwners[item] ? booker : booker % spec.getUsers() + 1;
+    }
+
+    private BookingStatus status(Random random, LocalDateTime start, LocalDateTime end) {
+        double p = random.nextDouble();
+        if (end.isBefore(spec.getAnchor())) {
+            return p < 0.8 ? BookingStatus.APPROVED : p < 0.95 ? BookingStatus.REJECTED : BookingStatus.CANCELED;
+        }
+        if (start.isAfter(spec.getAnchor())) {
+            return p < 0.5 ? BookingStatus.WAITING : p < 0.95 ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        }
+        return BookingStatus.APPROVED;
+    }
+
+    private LocalDateTime pastMoment(Random random) {
+        return windowStart.plusSeconds((long) (windowSeconds / 2 * random.nextDouble()));
+    }
+
+    private Random random(int stream) {
+        return new Random(spec.getSeed() * 31 + stream);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static void truncate(Connection connection, boolean postgres) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (postgres) {
+                statement.execute("TRUNCATE TABLE " + SUMMARY_TABLE + ", " + String.join(", ", TABLES)
+                        + " RESTART IDENTITY CASCADE");
+            } else {
+                statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+                statement.execute("TRUNCATE TABLE " + SUMMARY_TABLE);
+                for (String table : TABLES) {
+                    statement.execute("TRUNCATE TABLE " + table + " RESTART IDENTITY");
+                }
+                statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+        }
+        connection.commit();
+    }
+
+    /**
+     * Создаёт сводки бронирований вещей сразу устаревшими: их заполнит периодический пересчёт приложения.
+     */
+    private static void markSummariesStale(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            int rows = statement.executeUpdate("INSERT INTO " + SUMMARY_TABLE + " (item_id, refresh_at) "
+                    + "SELECT id, TIMESTAMP '1970-01-01 00:00:00' FROM items");
+            log.info("{}: {} строк", SUMMARY_TABLE, rows);
+        }
+        connection.commit();
+    }
+
+    private static void restartIdentities(Connection connection, boolean postgres) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                long next;
+                try (var rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    rs.next();
+                    next = rs.getLong(1);
+                }
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+            }
+            if (postgres) {
+                statement.execute("ANALYZE");
+            }
+        }
+        connection.commit();
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.perf.data;
+
+import lombok.Data;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Параметры генерируемого набора данных. Одинаковые параметры и {@link #seed} дают одинаковые данные.
+ */
+@Data
+public class DatasetSpec {
+
+    public enum Preset {
+        SMALL(1_000, 5_000, 20_000, 10_000),
+        MEDIUM(100_000, 300_000, 2_000_000, 500_000),
+        LARGE(1_000_000, 3_000_000, 20_000_000, 5_000_000);
+
+        private final int users;
+        private final int items;
+        private final int bookings;
+        private final int comments;
+
+        Preset(int users, int items, int bookings, int comments) {
+            this.users = users;
+            this.items = items;
+            this.bookings = bookings;
+            this.comments = comments;
+        }
+    }
+
+    public enum Mode {
+        /**
+         * COPY для PostgreSQL, пакетные INSERT для остальных баз.
+         */
+        AUTO,
+        BATCH,
+        COPY
+    }
+
+    private String url = "jdbc:postgresql://localhost:6541/shareit";
+    private String user = "shareit";
+    @ToString.Exclude
+    private String password = "shareit";
+
+    private long seed = 42;
+    private int users;
+    private int items;
+    private int bookings;
+    private int comments;
+    private int requests;
+
+    /**
+     * Доля вещей, созданных в ответ на запрос.
+     */
+    private double itemsWithRequest = 0.1;
+
+    /**
+     * Показатель Ципфа для числа вещей у владельца (0 — равномерно).
+     */
+    private double ownerSkew = 1.1;
+
+    /**
+     * Показатель Ципфа для популярности вещей в бронированиях и комментариях (0 — равномерно).
+     */
+    private double itemSkew = 1.0;
+
+    /**
+     * Момент «сейчас» для раскладки бронирований: половина окна в прошлом, половина в будущем.
+     */
+    private LocalDateTime anchor = LocalDate.now().atStartOfDay();
+    private int windowDays = 365;
+
+    private Mode mode = Mode.AUTO;
+    private int batchSize = 5_000;
+
+    public DatasetSpec() {
+        applyPreset(Preset.SMALL);
+    }
+
+    public void applyPreset(Preset preset) {
+        users = preset.users;
+        items = preset.items;
+        bookings = preset.bookings;
+        comments = preset.comments;
+        requests = preset.users / 10;
+    }
+
+    /**
+     * Разбирает аргументы вида {@code --preset=medium --seed=7 --item-skew=1.2}.
+     * Пресет применяется первым, остальные параметры его уточняют.
+     */
+    public static DatasetSpec parse(String[] args) {
+        DatasetSpec spec = new DatasetSpec();
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидается --имя=значение: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String preset = options.remove("preset");
+        if (preset != null) {
+            spec.applyPreset(Preset.valueOf(preset.toUpperCase()));
+        }
+        options.forEach((name, value) -> {
+            switch (name) {
+                case "url" -> spec.setUrl(value);
+                case "user" -> spec.setUser(value);
+                case "password" -> spec.setPassword(value);
+                case "seed" -> spec.setSeed(Long.parseLong(value));
+                case "users" -> spec.setUsers(Integer.parseInt(value));
+                case "items" -> spec.setItems(Integer.parseInt(value));
+                case "bookings" -> spec.setBookings(Integer.parseInt(value));
+                case "comments" -> spec.setComments(Integer.parseInt(value));
+                case "requests" -> spec.setRequests(Integer.parseInt(value));
+                case "items-with-request" -> spec.setItemsWithRequest(Double.parseDouble(value));
+                case "owner-skew" -> spec.setOwnerSkew(Double.parseDouble(value));
+                case "item-skew" -> spec.setItemSkew(Double.parseDouble(value));
+                case "anchor" -> spec.setAnchor(LocalDateTime.parse(value));
+                case "window-days" -> spec.setWindowDays(Integer.parseInt(value));
+                case "mode" -> spec.setMode(Mode.valueOf(value.toUpperCase()));
+                case "batch-size" -> spec.setBatchSize(Integer.parseInt(value));
+                default -> throw new IllegalArgumentException("Неизвестный параметр: --" + name);
+            }
+        });
+        if (spec.users < 2 || spec.items < 1) {
+            throw new IllegalArgumentException("Нужно хотя бы 2 пользователя и 1 вещь");
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.perf.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * Запись пакетами {@code INSERT} через {@link PreparedStatement#addBatch()}, с фиксацией после каждого пакета.
+ * Работает с любой базой, в том числе H2.
+ */
+class JdbcBatchTableWriter implements TableWriter {
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private int pending;
+    private long rows;
+
+    JdbcBatchTableWriter(Connection connection, String table, String[] columns, int batchSize) throws SQLException {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        this.statement = connection.prepareStatement("INSERT INTO " + table
+                + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")");
+    }
+
+    @Override
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+        rows++;
+        if (++pending == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            statement.close();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        statement.executeBatch();
+        connection.commit();
+        pending = 0;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.perf.data;
+
+import java.sql.SQLException;
+
+/**
+ * Построчная запись в таблицу. Значения передаются в порядке колонок, указанных при создании.
+ */
+interface TableWriter extends AutoCloseable {
+
+    void row(Object... values) throws SQLException;
+
+    long rows();
+
+    @Override
+    void close() throws SQLException;
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.perf.data;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Выбирает идентификатор из {@code 1..n} по закону Ципфа: вероятность ранга {@code k}
+ * пропорциональна {@code 1 / k^exponent}. При {@code exponent = 0} выбор равномерный.
+ * <p>
+ * Ранги случайно (но детерминированно) переставлены по идентификаторам, чтобы популярные
+ * записи не собирались в начале таблицы.
+ */
+class ZipfSampler {
+
+    private final int n;
+    private final double[] cdf;
+    private final int[] idByRank;
+
+    ZipfSampler(int n, double exponent, long seed) {
+        this.n = n;
+        if (exponent <= 0) {
+            this.cdf = null;
+            this.idByRank = null;
+            return;
+        }
+        this.cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        this.idByRank = new int[n];
+        for (int i = 0; i < n; i++) {
+            idByRank[i] = i + 1;
+        }
+        Random random = new Random(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = idByRank[i];
+            idByRank[i] = idByRank[j];
+            idByRank[j] = tmp;
+        }
+    }
+
+    int sample(Random random) {
+        if (cdf == null) {
+            return 1 + random.nextInt(n);
+        }
+        int rank = Arrays.binarySearch(cdf, random.nextDouble());
+        if (rank < 0) {
+            rank = Math.min(-rank - 1, n - 1);
+        }
+        return idByRank[rank];
+    }
+}
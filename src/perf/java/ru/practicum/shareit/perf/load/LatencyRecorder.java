@@ -0,0 +1,79 @@
+package ru.practicum.shareit.perf.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Накопитель задержек одного сценария. Задержки хранятся целиком (в микросекундах)
+ * и сортируются один раз при построении отчёта. Запросы, сброшенные без отправки, считаются
+ * в числе запросов и ошибок, но в перцентили не попадают: задержки у них нет.
+ */
+class LatencyRecorder {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] latencies = new long[1024];
+    private int size;
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder expectedRejections = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    void record(long latencyMicros, Outcome outcome) {
+        lock.lock();
+        try {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyMicros;
+        } finally {
+            lock.unlock();
+        }
+        if (outcome == Outcome.ERROR) {
+            errors.increment();
+        } else if (outcome == Outcome.EXPECTED_REJECTION) {
+            expectedRejections.increment();
+        }
+    }
+
+    /**
+     * Запрос не отправлен, потому что в полёте уже {@code max-in-flight} запросов.
+     */
+    void recordShed() {
+        shed.increment();
+        errors.increment();
+    }
+
+    LoadReport.ScenarioResult result(String scenario, double seconds) {
+        long[] sorted;
+        lock.lock();
+        try {
+            sorted = Arrays.copyOf(latencies, size);
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(sorted);
+        long count = sorted.length + shed.sum();
+        return new LoadReport.ScenarioResult(scenario, count, count / seconds,
+                count == 0 ? 0 : (double) errors.sum() / count, expectedRejections.sum(),
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.95),
+                percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1000.0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+
+    enum Outcome {
+        OK,
+        /**
+         * Ожидаемый отказ бизнес-логики (например, пересечение бронирований), не считается ошибкой.
+         */
+        EXPECTED_REJECTION,
+        ERROR
+    }
+}
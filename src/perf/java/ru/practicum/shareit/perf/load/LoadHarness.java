@@ -0,0 +1,359 @@
+package ru.practicum.shareit.perf.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный прогон реальных контроллеров со смешанным трафиком.
+ * <p>
+ * Нагрузка открытая: запросы отправляются с заданной частотой независимо от того, успели ли ответить
+ * предыдущие, а задержка считается от запланированного момента отправки. Поэтому замедление сервера
+ * видно в перцентилях, а не маскируется снижением частоты запросов. Запросы сверх {@code --max-in-flight}
+ * не отправляются и считаются ошибками; запросы, не получившие ответа за {@code --timeout} после конца
+ * прогона, считаются ошибками с задержкой до этого момента.
+ * <p>
+ * Приложение запускается в этом же процессе на случайном порту (или используется {@code --base-url})
+ * поверх базы, заполненной {@code DatasetGenerator} с теми же {@code --users} и {@code --items}.
+ * Итог печатается таблицей, сохраняется в JSON и, если задан {@code --baseline}, сравнивается с ним:
+ * при регрессии процесс завершается с кодом 1.
+ * <p>
+ * Запуск: {@code mvn -Pperf test-compile exec:exec@load -Dload.args="--rps=200 --duration=PT1M"}.
+ */
+@Slf4j
+public class LoadHarness {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String[] SEARCH_TERMS = {"дрел", "палатк", "велосипед", "пил", "лестниц", "аккумулятор",
+            "складн", "проектор", "гитар", "спальник", "комплект насадок"};
+    private static final String[] BOOKING_STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+    private static final int COMMENT_PAIR_SAMPLE = 200;
+    private static final int BATCH_SIZE = 20;
+
+    private final LoadOptions options;
+    private final ObjectMapper json = new ObjectMapper();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpClient client;
+    private final Random random;
+    private final Scenario[] schedule;
+    private final Map<Scenario, LatencyRecorder> recorders = new EnumMap<>(Scenario.class);
+    private final Queue<long[]> bookingsToApprove = new ConcurrentLinkedQueue<>();
+    private final List<long[]> commentPairs = new ArrayList<>();
+    private final ConcurrentMap<Long, Outstanding> inFlight = new ConcurrentHashMap<>();
+    private String baseUrl;
+
+    public LoadHarness(LoadOptions options) {
+        this.options = options;
+        this.random = new Random(options.getSeed());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.getTimeout())
+                .executor(executor)
+                .build();
+        List<Scenario> weighted = new ArrayList<>();
+        options.getMix().forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(scenario);
+            }
+        });
+        this.schedule = weighted.toArray(new Scenario[0]);
+        for (Scenario scenario : Scenario.values()) {
+            recorders.put(scenario, new LatencyRecorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        log.info("Нагрузочный прогон: {}", options);
+        LoadHarness harness = new LoadHarness(options);
+        ConfigurableApplicationContext app = null;
+        try {
+            if (options.getBaseUrl() != null) {
+                harness.baseUrl = options.getBaseUrl();
+            } else {
+                app = startApplication(options);
+                harness.baseUrl = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+            }
+            LoadReport report = harness.run();
+            report.print();
+            report.write(options.getReport());
+            log.info("Отчёт сохранён: {}", options.getReport().toAbsolutePath());
+
+            if (options.getBaseline() != null) {
+                List<String> regressions = report.regressionsAgainst(LoadReport.read(options.getBaseline()),
+                        options.getTolerance(), options.getErrorTolerance());
+                if (!regressions.isEmpty()) {
+                    regressions.forEach(r -> log.error("Регрессия: {}", r));
+                    System.exit(1);
+                }
+                log.info("Регрессий относительно {} нет", options.getBaseline());
+            }
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            harness.executor.shutdownNow();
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadOptions options) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + options.getDbUrl(),
+                "--spring.datasource.username=" + options.getDbUser(),
+                "--spring.datasource.password=" + options.getDbPassword(),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.ru.practicum.shareit=INFO",
+                "--logging.level.org.zalando.logbook=INFO",
+                "--logging.level.org.springframework.web=INFO"));
+        args.addAll(options.getAppArgs());
+        return new SpringApplicationBuilder(ShareItApp.class).run(args.toArray(new String[0]));
+    }
+
+    LoadReport run() throws InterruptedException {
+        collectCommentPairs();
+
+        long intervalNanos = (long) (1_000_000_000L / options.getRps());
+        long startedAt = System.nanoTime();
+        long measureFrom = startedAt + options.getWarmup().toNanos();
+        long finishAt = measureFrom + options.getDuration().toNanos();
+        log.info("Прогрев {} с, измерение {} с при {} RPS", options.getWarmup().toSeconds(),
+                options.getDuration().toSeconds(), options.getRps());
+
+        for (long i = 0; ; i++) {
+            long intendedAt = startedAt + i * intervalNanos;
+            if (intendedAt >= finishAt) {
+                break;
+            }
+            long wait = intendedAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario scenario = schedule[random.nextInt(schedule.length)];
+            boolean measured = intendedAt >= measureFrom;
+            if (inFlight.size() >= options.getMaxInFlight()) {
+                if (measured) {
+                    recorders.get(scenario).recordShed();
+                }
+                continue;
+            }
+            HttpRequest request = buildRequest(scenario);
+            long sequence = i;
+            inFlight.put(sequence, new Outstanding(scenario, intendedAt, measured));
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> complete(sequence, response, error));
+        }
+
+        long drainUntil = System.nanoTime() + options.getTimeout().toNanos();
+        while (!inFlight.isEmpty() && System.nanoTime() < drainUntil) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        abandonOutstanding();
+
+        double seconds = options.getDuration().toNanos() / 1e9;
+        List<LoadReport.ScenarioResult> results = new ArrayList<>();
+        recorders.forEach((scenario, recorder) -> results.add(recorder.result(scenario.name(), seconds)));
+        return new LoadReport(options.getRps(), seconds, options.getSeed(), results);
+    }
+
+    /**
+     * Учитывает ответ. Запрос, уже списанный {@link #abandonOutstanding}, повторно не учитывается.
+     */
+    private void complete(long sequence, HttpResponse<String> response, Throwable error) {
+        Outstanding request = inFlight.remove(sequence);
+        if (request == null) {
+            return;
+        }
+        Scenario scenario = request.scenario();
+        LatencyRecorder.Outcome outcome = error != null
+                ? LatencyRecorder.Outcome.ERROR
+                : scenario.classify(response.statusCode());
+        if (scenario == Scenario.CREATE_BOOKING && outcome == LatencyRecorder.Outcome.OK) {
+            rememberForApproval(response.body());
+        }
+        if (request.measured()) {
+            recorders.get(scenario).record((System.nanoTime() - request.intendedAt()) / 1_000, outcome);
+        }
+    }
+
+    /**
+     * Списывает запросы, не дождавшиеся ответа до конца ожидания: ошибка с задержкой от запланированного
+     * момента отправки до текущего. Иначе самые медленные запросы выпали бы из перцентилей.
+     */
+    private void abandonOutstanding() {
+        long now = System.nanoTime();
+        int abandoned = 0;
+        for (Long sequence : List.copyOf(inFlight.keySet())) {
+            Outstanding request = inFlight.remove(sequence);
+            if (request == null) {
+                continue;
+            }
+            abandoned++;
+            if (request.measured()) {
+                recorders.get(request.scenario()).record((now - request.intendedAt()) / 1_000,
+                        LatencyRecorder.Outcome.ERROR);
+            }
+        }
+        if (abandoned > 0) {
+            log.warn("Не дождались ответа на {} запросов за {} с после конца прогона", abandoned,
+                    options.getTimeout().toSeconds());
+        }
+    }
+
+    private HttpRequest buildRequest(Scenario scenario) {
+        long user = randomUser();
+        return switch (scenario) {
+            case SEARCH -> get("/items/search?text="
+                    + URLEncoder.encode(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)], StandardCharsets.UTF_8)
+                    + "&limit=20", user);
+            case ITEM -> get("/items/" + randomItem(), user);
+            case ITEM_BATCH -> get("/items/batch?ids=" + randomItemIds(BATCH_SIZE), user);
+            case OWNER_ITEMS -> get("/items?limit=20", user);
+            case BOOKER_BOOKINGS -> get("/bookings?limit=20&state="
+                    + BOOKING_STATES[random.nextInt(BOOKING_STATES.length)], user);
+            case OWNER_BOOKINGS -> get("/bookings/owner?limit=20&state="
+                    + BOOKING_STATES[random.nextInt(BOOKING_STATES.length)], user);
+            case REQUESTS -> get("/requests/all?limit=20", user);
+            case CREATE_BOOKING -> createBooking(user);
+            case APPROVE_BOOKING -> approveBooking(user);
+            case COMMENT -> comment(user);
+        };
+    }
+
+    /**
+     * Новые бронирования кладутся далеко за окно сгенерированных данных, чтобы пересечения были редкими.
+     */
+    private HttpRequest createBooking(long user) {
+        LocalDateTime start = LocalDateTime.now().plusYears(2).plusHours(random.nextInt(24 * 365 * 50));
+        String body = "{\"itemId\":" + randomItem()
+                + ",\"start\":\"" + DATE_TIME.format(start)
+                + "\",\"end\":\"" + DATE_TIME.format(start.plusHours(1 + random.nextInt(48))) + "\"}";
+        return post("/bookings", user, body);
+    }
+
+    /**
+     * Подтверждает бронирование, созданное сценарием {@link Scenario#CREATE_BOOKING}. Пока таких нет,
+     * запрашивает подтверждение несуществующего бронирования (быстрый отказ).
+     */
+    private HttpRequest approveBooking(long user) {
+        long[] booking = bookingsToApprove.poll();
+        if (booking == null) {
+            return patch("/bookings/0?approved=true", user);
+        }
+        return patch("/bookings/" + booking[0] + "?approved=" + random.nextBoolean(), booking[1]);
+    }
+
+    private HttpRequest comment(long user) {
+        if (commentPairs.isEmpty()) {
+            return post("/items/" + randomItem() + "/comment", user, "{\"text\":\"Нагрузочный комментарий\"}");
+        }
+        long[] pair = commentPairs.get(random.nextInt(commentPairs.size()));
+        return post("/items/" + pair[1] + "/comment", pair[0], "{\"text\":\"Всё отлично, рекомендую\"}");
+    }
+
+    private void rememberForApproval(String body) {
+        try {
+            JsonNode node = json.readTree(body);
+            bookingsToApprove.add(new long[]{node.path("id").asLong(), node.path("item").path("ownerId").asLong()});
+        } catch (IOException e) {
+            log.warn("Не удалось разобрать ответ на создание бронирования: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Собирает пары (пользователь, вещь) из завершённых подтверждённых бронирований, чтобы сценарий
+     * комментариев проходил проверки, а не упирался в отказ.
+     */
+    private void collectCommentPairs() {
+        for (int i = 0; i < COMMENT_PAIR_SAMPLE; i++) {
+            long user = randomUser();
+            try {
+                HttpResponse<String> response = client.send(get("/bookings?state=PAST&limit=20", user),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    continue;
+                }
+                for (JsonNode booking : json.readTree(response.body())) {
+                    if ("APPROVED".equals(booking.path("status").asText())) {
+                        commentPairs.add(new long[]{user, booking.path("item").path("id").asLong()});
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Не удалось получить прошедшие бронирования пользователя {}: {}", user, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        log.info("Пар для комментариев: {}", commentPairs.size());
+    }
+
+    private long randomUser() {
+        return 1 + random.nextInt(options.getUsers());
+    }
+
+    private long randomItem() {
+        return 1 + random.nextInt(options.getItems());
+    }
+
+    private String randomItemIds(int count) {
+        StringJoiner ids = new StringJoiner(",");
+        for (int i = 0; i < count; i++) {
+            ids.add(Long.toString(randomItem()));
+        }
+        return ids.toString();
+    }
+
+    private HttpRequest get(String path, long user) {
+        return request(path, user).GET().build();
+    }
+
+    private HttpRequest post(String path, long user, String body) {
+        return request(path, user)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest patch(String path, long user) {
+        return request(path, user).method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder request(String path, long user) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(options.getTimeout())
+                .header(USER_HEADER, Long.toString(user));
+    }
+
+    private record Outstanding(Scenario scenario, long intendedAt, boolean measured) {
+    }
+}
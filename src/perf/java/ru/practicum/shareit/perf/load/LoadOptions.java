@@ -0,0 +1,103 @@
+package ru.practicum.shareit.perf.load;
+
+import lombok.Data;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры прогона. Аргументы вида {@code --rps=200 --duration=PT2M --mix=SEARCH:50,ITEM:50};
+ * аргументы {@code --app.<свойство>=<значение>} передаются запускаемому приложению как {@code --<свойство>}.
+ */
+@Data
+public class LoadOptions {
+
+    /**
+     * Адрес уже запущенного приложения; если не задан, приложение запускается в этом же процессе.
+     */
+    private String baseUrl;
+    private String dbUrl = "jdbc:postgresql://localhost:6541/shareit";
+    private String dbUser = "shareit";
+    @ToString.Exclude
+    private String dbPassword = "shareit";
+    private List<String> appArgs = new ArrayList<>();
+
+    private double rps = 100;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration timeout = Duration.ofSeconds(10);
+    private int maxInFlight = 5_000;
+    private long seed = 42;
+
+    /**
+     * Размер набора данных (как у генератора): пользователи и вещи выбираются из {@code 1..users} и {@code 1..items}.
+     */
+    private int users = 1_000;
+    private int items = 5_000;
+
+    private Map<Scenario, Integer> mix = defaultMix();
+
+    private Path report = Path.of("target", "perf", "load-report.json");
+    private Path baseline;
+    private double tolerance = 0.2;
+    private double errorTolerance = 0.01;
+
+    public static LoadOptions parse(String[] args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидается --имя=значение: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            if (name.startsWith("app.")) {
+                options.appArgs.add("--" + name.substring(4) + "=" + value);
+                continue;
+            }
+            switch (name) {
+                case "base-url" -> options.setBaseUrl(value);
+                case "db-url" -> options.setDbUrl(value);
+                case "db-user" -> options.setDbUser(value);
+                case "db-password" -> options.setDbPassword(value);
+                case "rps" -> options.setRps(Double.parseDouble(value));
+                case "warmup" -> options.setWarmup(Duration.parse(value));
+                case "duration" -> options.setDuration(Duration.parse(value));
+                case "timeout" -> options.setTimeout(Duration.parse(value));
+                case "max-in-flight" -> options.setMaxInFlight(Integer.parseInt(value));
+                case "seed" -> options.setSeed(Long.parseLong(value));
+                case "users" -> options.setUsers(Integer.parseInt(value));
+                case "items" -> options.setItems(Integer.parseInt(value));
+                case "mix" -> options.setMix(parseMix(value));
+                case "report" -> options.setReport(Path.of(value));
+                case "baseline" -> options.setBaseline(Path.of(value));
+                case "tolerance" -> options.setTolerance(Double.parseDouble(value));
+                case "error-tolerance" -> options.setErrorTolerance(Double.parseDouble(value));
+                default -> throw new IllegalArgumentException("Неизвестный параметр: --" + name);
+            }
+        }
+        return options;
+    }
+
+    private static Map<Scenario, Integer> defaultMix() {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            mix.put(scenario, scenario.defaultWeight());
+        }
+        return mix;
+    }
+
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.split(":");
+            mix.put(Scenario.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+}
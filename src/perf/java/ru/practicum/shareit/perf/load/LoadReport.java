@@ -0,0 +1,82 @@
+package ru.practicum.shareit.perf.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Итог прогона: задержки в миллисекундах по сценариям. Сохраняется в JSON и сравнивается с базовым прогоном.
+ */
+public record LoadReport(double targetRps, double durationSeconds, long seed, List<ScenarioResult> scenarios) {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public record ScenarioResult(String scenario, long requests, double throughput, double errorRate,
+                                 long expectedRejections, double p50, double p90, double p95, double p99,
+                                 double p999, double max) {
+    }
+
+    public void print() {
+        System.out.printf(Locale.ROOT, "%nЦелевая нагрузка: %.0f RPS, длительность: %.0f с, seed: %d%n",
+                targetRps, durationSeconds, seed);
+        System.out.printf(Locale.ROOT, "%-16s %8s %8s %7s %8s %8s %8s %8s %8s %8s %8s%n", "сценарий", "запросы",
+                "RPS", "ошибки", "отказы", "p50,мс", "p90", "p95", "p99", "p99.9", "max");
+        for (ScenarioResult r : scenarios) {
+            System.out.printf(Locale.ROOT, "%-16s %8d %8.1f %6.2f%% %8d %8.2f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                    r.scenario(), r.requests(), r.throughput(), r.errorRate() * 100, r.expectedRejections(),
+                    r.p50(), r.p90(), r.p95(), r.p99(), r.p999(), r.max());
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        JSON.writeValue(path.toFile(), this);
+    }
+
+    public static LoadReport read(Path path) throws IOException {
+        return JSON.readValue(path.toFile(), LoadReport.class);
+    }
+
+    /**
+     * Сравнивает прогон с базовым: регрессия — рост p95 или p99 больше чем в {@code 1 + tolerance} раз
+     * (с запасом в 1 мс на шум) или рост доли ошибок больше чем на {@code errorTolerance}.
+     *
+     * @return описания регрессий; пустой список, если их нет
+     */
+    public List<String> regressionsAgainst(LoadReport baseline, double tolerance, double errorTolerance) {
+        Map<String, ScenarioResult> base = baseline.scenarios().stream()
+                .collect(Collectors.toMap(ScenarioResult::scenario, Function.identity()));
+        List<String> regressions = new ArrayList<>();
+        for (ScenarioResult current : scenarios) {
+            ScenarioResult before = base.get(current.scenario());
+            if (before == null || current.requests() == 0) {
+                continue;
+            }
+            checkLatency(regressions, current.scenario(), "p95", before.p95(), current.p95(), tolerance);
+            checkLatency(regressions, current.scenario(), "p99", before.p99(), current.p99(), tolerance);
+            if (current.errorRate() > before.errorRate() + errorTolerance) {
+                regressions.add(String.format(Locale.ROOT, "%s: доля ошибок %.2f%% -> %.2f%%",
+                        current.scenario(), before.errorRate() * 100, current.errorRate() * 100));
+            }
+        }
+        return regressions;
+    }
+
+    private static void checkLatency(List<String> regressions, String scenario, String metric,
+                                     double before, double current, double tolerance) {
+        if (current > before * (1 + tolerance) + 1.0) {
+            regressions.add(String.format(Locale.ROOT, "%s: %s %.2f мс -> %.2f мс", scenario, metric, before, current));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.perf.load;
+
+import java.util.Set;
+
+/**
+ * Сценарии нагрузки с весами по умолчанию (доля в общем потоке запросов) и кодами ответа,
+ * которые для сценария являются нормальным отказом бизнес-логики, а не ошибкой.
+ */
+enum Scenario {
+    SEARCH(25),
+    ITEM(10),
+    ITEM_BATCH(5),
+    OWNER_ITEMS(10),
+    BOOKER_BOOKINGS(15),
+    OWNER_BOOKINGS(10),
+    REQUESTS(5),
+    CREATE_BOOKING(10, 400, 404),
+    APPROVE_BOOKING(5, 400, 404),
+    COMMENT(5, 400);
+
+    private final int defaultWeight;
+    private final Set<Integer> expectedRejections;
+
+    Scenario(int defaultWeight, Integer... expectedRejections) {
+        this.defaultWeight = defaultWeight;
+        this.expectedRejections = Set.of(expectedRejections);
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+
+    LatencyRecorder.Outcome classify(int status) {
+        if (status >= 200 && status < 300) {
+            return LatencyRecorder.Outcome.OK;
+        }
+        return expectedRejections.contains(status)
+                ? LatencyRecorder.Outcome.EXPECTED_REJECTION
+                : LatencyRecorder.Outcome.ERROR;
+    }
+}
@@ -0,0 +1,398 @@
+package ru.practicum.shareit.perf.plan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.common.pagination.PageParams;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Проверка планов запросов репозиториев на PostgreSQL: {@code EXPLAIN (ANALYZE, BUFFERS)} каждого запроса
+ * на данных {@code DatasetGenerator}.
+ * <p>
+ * Приложение поднимается без веб-сервера поверх той же базы, методы репозиториев вызываются по-настоящему,
+ * а SQL и параметры, с которыми Hibernate их выполнил, перехватываются на уровне JDBC ({@link StatementCapture})
+ * и объясняются отдельным соединением. Так проверяется ровно то, что уходит в базу, а не ручная копия запроса.
+ * Параметры берутся самые тяжёлые: пользователь с наибольшим числом бронирований, владелец с наибольшим
+ * числом бронирований и т. п. Прогон считается неуспешным, если запрос читает таблицу бронирований полным
+ * проходом, не использует ни один из ожидаемых для него индексов или если какой-то индекс из миграций
+ * ({@code *_idx}) не выбран ни одним запросом и, значит, только замедляет запись.
+ * <p>
+ * На маленьком наборе планировщику дешевле читать таблицы целиком, поэтому проверять имеет смысл
+ * начиная с пресета {@code medium}.
+ * <p>
+ * Запуск: {@code mvn -Pperf test-compile exec:exec@plans -Dplans.args="--url=... --user=... --password=..."}.
+ */
+@Slf4j
+public class QueryPlans {
+
+    private static final Set<BookingStatus> OCCUPYING = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final int PAGE = 20;
+    private static final int CHANGES_PAGE = 100;
+    private static final int SUMMARY_BATCH = 500;
+    private static final int OPEN_REQUESTS_BATCH = 10_000;
+
+    private static final Pattern INDEX_USE = Pattern.compile("(?:using|Bitmap Index Scan on) (\\w+)");
+    private static final Pattern EXECUTION_TIME = Pattern.compile("Execution Time: ([\\d.]+) ms");
+
+    private final BookingRepository bookings;
+    private final ItemRepository items;
+    private final CommentRepository comments;
+    private final ItemRequestRepository requests;
+    private final ItemBookingSummaryRepository summaries;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private record QueryCase(String name, Runnable call, Set<String> expectedIndexes) {
+    }
+
+    private record Samples(long booker, long owner, long item, long commentedItem, long requestor,
+                           List<Long> ownerItems, List<Long> feedRequests, LocalDateTime now) {
+    }
+
+    QueryPlans(ConfigurableApplicationContext app) {
+        this.bookings = app.getBean(BookingRepository.class);
+        this.items = app.getBean(ItemRepository.class);
+        this.comments = app.getBean(CommentRepository.class);
+        this.requests = app.getBean(ItemRequestRepository.class);
+        this.summaries = app.getBean(ItemBookingSummaryRepository.class);
+        this.readOnlyTransaction = new TransactionTemplate(app.getBean(PlatformTransactionManager.class));
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String url = "jdbc:postgresql://localhost:6541/shareit";
+        String user = "shareit";
+        String password = "shareit";
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Ожидается --имя=значение: " + arg);
+            }
+            String value = arg.substring(eq + 1);
+            switch (arg.substring(2, eq)) {
+                case "url" -> url = value;
+                case "user" -> user = value;
+                case "password" -> password = value;
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + arg);
+            }
+        }
+
+        boolean ok;
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            if (!connection.getMetaData().getDatabaseProductName().equals("PostgreSQL")) {
+                throw new IllegalArgumentException("Планы проверяются только на PostgreSQL");
+            }
+            try (ConfigurableApplicationContext app = startApplication(url, user, password)) {
+                ok = new QueryPlans(app).check(connection);
+            }
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Приложение без веб-сервера, с пулом, обёрнутым {@link StatementCapture}. Запросы фоновых задач
+     * идут в других потоках и в перехват не попадают.
+     */
+    private static ConfigurableApplicationContext startApplication(String url, String user, String password) {
+        BeanPostProcessor captureStatements = new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? StatementCapture.wrap(dataSource) : bean;
+            }
+        };
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(captureStatements))
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + user,
+                        "--spring.datasource.password=" + password,
+                        "--spring.jpa.show-sql=false",
+                        "--shareit.search.backend=database",
+                        "--shareit.sql-budget.mode=off",
+                        "--logging.level.ru.practicum.shareit=INFO");
+    }
+
+    boolean check(Connection connection) throws SQLException {
+        Samples samples = samples(connection);
+        log.info("Параметры: {}", samples);
+        Set<String> unused = new TreeSet<>(migrationIndexes(connection));
+        List<String> problems = new ArrayList<>();
+
+        for (QueryCase query : cases(samples)) {
+            Set<String> used = new LinkedHashSet<>();
+            boolean bookingsSeqScan = false;
+            System.out.println("== " + query.name());
+            for (List<String> plan : explain(connection, query)) {
+                String executionTime = "?";
+                for (String line : plan) {
+                    Matcher index = INDEX_USE.matcher(line);
+                    while (index.find()) {
+                        used.add(index.group(1));
+                    }
+                    bookingsSeqScan |= line.contains("Seq Scan on bookings");
+                    Matcher time = EXECUTION_TIME.matcher(line);
+                    if (time.find()) {
+                        executionTime = time.group(1);
+                    }
+                }
+                System.out.println("   (" + executionTime + " ms)");
+                plan.forEach(line -> System.out.println("   " + line));
+            }
+            unused.removeAll(used);
+
+            if (bookingsSeqScan) {
+                problems.add(query.name() + ": полный проход по bookings");
+            }
+            if (Collections.disjoint(used, query.expectedIndexes())) {
+                problems.add(query.name() + ": не использован ни один из " + query.expectedIndexes());
+            }
+        }
+        unused.forEach(index -> problems.add(index + ": не выбран ни одним запросом"));
+
+        if (problems.isEmpty()) {
+            log.info("Все запросы используют ожидаемые индексы, неиспользуемых индексов нет");
+            return true;
+        }
+        problems.forEach(problem -> log.error("План: {}", problem));
+        return false;
+    }
+
+    /**
+     * Вызовы репозиториев с самыми тяжёлыми параметрами; первая страница списка, как чаще всего.
+     */
+    private List<QueryCase> cases(Samples s) {
+        LocalDateTime latest = PageParams.LATEST;
+        long maxId = Long.MAX_VALUE;
+        Pageable page = PageParams.of(null, PAGE).probe();
+        Pageable changes = PageParams.of(null, CHANGES_PAGE).probe();
+        Pageable first = PageRequest.of(0, 1);
+
+        return List.of(
+                new QueryCase("BookingRepository.findAllByBooker",
+                        () -> bookings.findAllByBooker(s.booker(), latest, maxId, page),
+                        Set.of("bookings_booker_start_idx")),
+                new QueryCase("BookingRepository.findByBookerAndStatus(WAITING)",
+                        () -> bookings.findByBookerAndStatus(s.booker(), BookingStatus.WAITING, latest, maxId, page),
+                        Set.of("bookings_booker_status_start_idx")),
+                new QueryCase("BookingRepository.findCurrentByBooker",
+                        () -> bookings.findCurrentByBooker(s.booker(), latest, maxId, page),
+                        Set.of("bookings_booker_start_idx")),
+                new QueryCase("BookingRepository.findPastByBooker",
+                        () -> bookings.findPastByBooker(s.booker(), latest, maxId, page),
+                        Set.of("bookings_booker_start_idx")),
+                new QueryCase("BookingRepository.findFutureByBooker",
+                        () -> bookings.findFutureByBooker(s.booker(), latest, maxId, page),
+                        Set.of("bookings_booker_start_idx")),
+                new QueryCase("BookingRepository.findAllByOwner",
+                        () -> bookings.findAllByOwner(s.owner(), latest, maxId, page),
+                        Set.of("bookings_owner_start_idx")),
+                new QueryCase("BookingRepository.findByOwnerAndStatus(WAITING)",
+                        () -> bookings.findByOwnerAndStatus(s.owner(), BookingStatus.WAITING, latest, maxId, page),
+                        Set.of("bookings_owner_status_start_idx")),
+                new QueryCase("BookingRepository.findCurrentByOwner",
+                        () -> bookings.findCurrentByOwner(s.owner(), latest, maxId, page),
+                        Set.of("bookings_owner_start_idx")),
+                new QueryCase("BookingRepository.findPastByOwner",
+                        () -> bookings.findPastByOwner(s.owner(), latest, maxId, page),
+                        Set.of("bookings_owner_start_idx")),
+                new QueryCase("BookingRepository.findFutureByOwner",
+                        () -> bookings.findFutureByOwner(s.owner(), latest, maxId, page),
+                        Set.of("bookings_owner_start_idx")),
+                new QueryCase("BookingRepository.findNextBoundaryForBooker",
+                        () -> bookings.findNextBoundaryForBooker(s.booker(), s.now()),
+                        Set.of("bookings_booker_start_idx", "bookings_booker_status_start_idx")),
+                new QueryCase("BookingRepository.findNextBoundaryForOwner",
+                        () -> bookings.findNextBoundaryForOwner(s.owner(), s.now()),
+                        Set.of("bookings_owner_start_idx", "bookings_owner_status_start_idx")),
+                new QueryCase("BookingRepository.findLastBooking",
+                        () -> bookings.findLastBooking(s.item(), s.now(), first),
+                        Set.of("bookings_item_end_idx", "bookings_item_start_idx")),
+                new QueryCase("BookingRepository.findNextBooking",
+                        () -> bookings.findNextBooking(s.item(), s.now(), first),
+                        Set.of("bookings_item_start_idx")),
+                new QueryCase("BookingRepository.findLastBookings",
+                        () -> bookings.findLastBookings(s.ownerItems()),
+                        Set.of("bookings_item_end_idx", "bookings_item_start_idx")),
+                new QueryCase("BookingRepository.findNextBookings",
+                        () -> bookings.findNextBookings(s.ownerItems()),
+                        Set.of("bookings_item_start_idx")),
+                new QueryCase("BookingRepository.findChangedByBooker",
+                        () -> bookings.findChangedByBooker(s.booker(), 0L, maxId, changes),
+                        Set.of("bookings_booker_change_idx")),
+                new QueryCase("BookingRepository.findChangedByOwner",
+                        () -> bookings.findChangedByOwner(s.owner(), 0L, maxId, changes),
+                        Set.of("bookings_owner_change_idx")),
+                new QueryCase("BookingRepository.findIntervalsByItem",
+                        () -> bookings.findIntervalsByItem(s.item(), OCCUPYING, s.now()),
+                        Set.of("bookings_item_start_idx", "bookings_item_end_idx")),
+                new QueryCase("BookingRepository.findEndedIntervalsByItem",
+                        () -> bookings.findEndedIntervalsByItem(s.item(), OCCUPYING, s.now().minusDays(30), s.now(),
+                                s.now()),
+                        Set.of("bookings_item_end_idx")),
+                new QueryCase("BookingRepository.existsEndedOverlap",
+                        () -> bookings.existsEndedOverlap(s.item(), OCCUPYING, s.now().minusDays(30), s.now(), s.now()),
+                        Set.of("bookings_item_end_idx")),
+                new QueryCase("BookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore",
+                        () -> bookings.existsByItemIdAndBookerIdAndStatusAndEndBefore(s.item(), s.booker(),
+                                BookingStatus.APPROVED, s.now()),
+                        Set.of("bookings_item_end_idx", "bookings_booker_status_start_idx")),
+                new QueryCase("BookingRepository.findNextBoundaryForItem",
+                        () -> bookings.findNextBoundaryForItem(s.item(), s.now()),
+                        Set.of("bookings_item_end_idx")),
+                new QueryCase("ItemBookingSummaryRepository.findAllWithBookings",
+                        () -> summaries.findAllWithBookings(s.ownerItems()),
+                        Set.of("item_booking_summary_pkey")),
+                new QueryCase("ItemBookingSummaryRepository.findDueItemIds",
+                        () -> summaries.findDueItemIds(s.now(), PageRequest.of(0, SUMMARY_BATCH)),
+                        Set.of("item_booking_summary_refresh_idx")),
+                new QueryCase("ItemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc",
+                        () -> items.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(s.owner(), 0L, page),
+                        Set.of("items_owner_idx")),
+                new QueryCase("ItemRepository.existsByIdAndOwnerId",
+                        () -> items.existsByIdAndOwnerId(s.item(), s.owner()),
+                        Set.of("items_pkey")),
+                new QueryCase("ItemRepository.findChangedByOwner",
+                        () -> items.findChangedByOwner(s.owner(), 0L, maxId, changes),
+                        Set.of("items_owner_change_idx")),
+                new QueryCase("CommentRepository.findAllByItemIdInWithAuthor (одна вещь)",
+                        () -> comments.findAllByItemIdInWithAuthor(List.of(s.commentedItem())),
+                        Set.of("comments_item_created_idx")),
+                new QueryCase("CommentRepository.findAllByItemIdInWithAuthor",
+                        () -> comments.findAllByItemIdInWithAuthor(s.ownerItems()),
+                        Set.of("comments_item_created_idx")),
+                new QueryCase("ItemRequestRepository.findAllByRequestorIdOrderByCreatedDesc",
+                        () -> requests.findAllByRequestorIdOrderByCreatedDesc(s.requestor()),
+                        Set.of("requests_requestor_created_idx")),
+                new QueryCase("ItemRequestRepository.findPageOfOthers",
+                        () -> requests.findPageOfOthers(s.requestor(), latest, maxId, page),
+                        Set.of("requests_created_idx")),
+                new QueryCase("ItemRequestRepository.findOpenAfter",
+                        () -> requests.findOpenAfter(0L, PageRequest.of(0, OPEN_REQUESTS_BATCH)),
+                        Set.of("items_request_idx")),
+                new QueryCase("ItemRequestRepository.findOpenByIdIn",
+                        () -> requests.findOpenByIdIn(s.feedRequests()),
+                        Set.of("items_request_idx")),
+                new QueryCase("ItemRepository.findAllByRequestIdIn",
+                        () -> items.findAllByRequestIdIn(s.feedRequests()),
+                        Set.of("items_request_idx"))
+        );
+    }
+
+    /**
+     * Выполняет вызов репозитория в откатываемой транзакции и возвращает планы всех его запросов.
+     */
+    private List<List<String>> explain(Connection connection, QueryCase query) throws SQLException {
+        List<StatementCapture.Captured> statements = StatementCapture.capture(() ->
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    query.call().run();
+                    status.setRollbackOnly();
+                }));
+        if (statements.isEmpty()) {
+            throw new IllegalStateException(query.name() + ": репозиторий не выполнил ни одного запроса");
+        }
+        List<List<String>> plans = new ArrayList<>();
+        for (StatementCapture.Captured captured : statements) {
+            List<String> plan = new ArrayList<>();
+            plan.add("SQL: " + captured.sql());
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) "
+                    + captured.sql())) {
+                captured.bind(statement);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        plan.add(rs.getString(1));
+                    }
+                }
+            }
+            plans.add(plan);
+        }
+        return plans;
+    }
+
+    private static Samples samples(Connection connection) throws SQLException {
+        long owner = single(connection, "SELECT owner_id FROM bookings GROUP BY owner_id ORDER BY COUNT(*) DESC LIMIT 1");
+        List<Long> ownerItems = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id FROM items WHERE owner_id = ? ORDER BY id LIMIT " + PAGE)) {
+            statement.setLong(1, owner);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ownerItems.add(rs.getLong(1));
+                }
+            }
+        }
+        long requestor = single(connection,
+                "SELECT requestor_id FROM requests GROUP BY requestor_id ORDER BY COUNT(*) DESC LIMIT 1");
+        List<Long> feedRequests = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM requests "
+                + "WHERE requestor_id <> ? ORDER BY created DESC, id DESC LIMIT " + PAGE)) {
+            statement.setLong(1, requestor);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    feedRequests.add(rs.getLong(1));
+                }
+            }
+        }
+        return new Samples(
+                single(connection, "SELECT booker_id FROM bookings GROUP BY booker_id ORDER BY COUNT(*) DESC LIMIT 1"),
+                owner,
+                single(connection, "SELECT item_id FROM bookings GROUP BY item_id ORDER BY COUNT(*) DESC LIMIT 1"),
+                single(connection, "SELECT item_id FROM comments GROUP BY item_id ORDER BY COUNT(*) DESC LIMIT 1"),
+                requestor,
+                ownerItems,
+                feedRequests,
+                LocalDateTime.now());
+    }
+
+    private static Set<String> migrationIndexes(Connection connection) throws SQLException {
+        Set<String> indexes = new TreeSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT indexname FROM pg_indexes "
+                     + "WHERE schemaname = current_schema() AND indexname LIKE '%\\_idx'")) {
+            while (rs.next()) {
+                indexes.add(rs.getString(1));
+            }
+        }
+        return indexes;
+    }
+
+    private static long single(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            if (!rs.next()) {
+                throw new IllegalStateException("Нет данных для " + sql + " — сначала запустите DatasetGenerator");
+            }
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.perf.plan;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Перехват SQL и параметров, с которыми Hibernate выполняет запросы, на уровне JDBC.
+ * <p>
+ * {@link #wrap(DataSource)} оборачивает пул приложения: подготовленные выражения запоминают вызовы
+ * {@code setXxx(index, ...)}, а при выполнении внутри {@link #capture(Runnable)} в том же потоке
+ * SQL вместе с этими вызовами попадает в результат. {@link Captured#bind(PreparedStatement)} повторяет
+ * привязку на другом выражении, например на {@code EXPLAIN} того же SQL.
+ */
+final class StatementCapture {
+
+    private static final ThreadLocal<List<Captured>> CURRENT = new ThreadLocal<>();
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+    private StatementCapture() {
+    }
+
+    /**
+     * Выполненный запрос: SQL и привязки параметров в порядке вызова.
+     */
+    record Captured(String sql, List<Binding> bindings) {
+
+        void bind(PreparedStatement statement) throws SQLException {
+            for (Binding binding : bindings) {
+                try {
+                    binding.method().invoke(statement, binding.args());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof SQLException sql) {
+                        throw sql;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+    }
+
+    record Binding(Method method, Object[] args) {
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, args, result) ->
+                result instanceof Connection connection ? wrap(connection) : result);
+    }
+
+    /**
+     * Выполняет действие и возвращает запросы, выполненные им в текущем потоке через обёрнутый пул.
+     */
+    static List<Captured> capture(Runnable action) {
+        List<Captured> captured = new ArrayList<>();
+        CURRENT.set(captured);
+        try {
+            action.run();
+        } finally {
+            CURRENT.remove();
+        }
+        return captured;
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) ->
+                method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement
+                        ? wrap(statement, (String) args[0])
+                        : result);
+    }
+
+    private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+        return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bindings.add(new Binding(method, args.clone()));
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if (EXECUTE.contains(name) && (args == null || args.length == 0)) {
+                List<Captured> captured = CURRENT.get();
+                if (captured != null) {
+                    captured.add(new Captured(sql, List.copyOf(bindings)));
+                }
+            }
+            return result;
+        });
+    }
+
+    @FunctionalInterface
+    private interface AfterCall {
+        Object apply(Method method, Object[] args, Object result);
+    }
+
+    /**
+     * Прокси, который передаёт вызовы в {@code target} и даёт обработать результат.
+     */
+    private static <T> T proxy(Class<T> type, T target, AfterCall after) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return after.apply(method, args, result);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
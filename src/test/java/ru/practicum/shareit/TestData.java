@@ -0,0 +1,129 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.common.sync.ChangeClock;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Тестовые данные, записанные напрямую через репозитории, в обход сервисов: индексы в памяти, сводки
+ * бронирований и события о таких записях не знают. Каждый метод выполняется в своей транзакции или
+ * присоединяется к транзакции {@link #inTransaction(Supplier)}. Почта пользователей уникальна в пределах
+ * запуска, поэтому тесты не мешают друг другу в общей базе H2.
+ */
+@Component
+@Transactional
+public class TestData {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ChangeClock changeClock;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public TestData(UserRepository userRepository,
+                    ItemRepository itemRepository,
+                    BookingRepository bookingRepository,
+                    CommentRepository commentRepository,
+                    ItemRequestRepository requestRepository,
+                    ChangeClock changeClock,
+                    EntityManagerFactory entityManagerFactory) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.requestRepository = requestRepository;
+        this.changeClock = changeClock;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Текущее время с точностью до секунды, как его хранит база.
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    /**
+     * Выполняет подготовку данных в одной транзакции.
+     */
+    public <T> T inTransaction(Supplier<T> action) {
+        return action.get();
+    }
+
+    /**
+     * Очищает кэш второго уровня, чтобы следующий запрос читал базу.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void evictCaches() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    public User user() {
+        int number = USERS.incrementAndGet();
+        return userRepository.save(User.builder()
+                .name("Пользователь " + number)
+                .email("user-" + number + "@example.com")
+                .build());
+    }
+
+    public Item item(User owner, String name, String description) {
+        return itemRepository.save(Item.builder()
+                .name(name)
+                .description(description)
+                .available(true)
+                .owner(owner)
+                .changeVersion(changeClock.next())
+                .build());
+    }
+
+    public Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .owner(item.getOwner())
+                .status(status)
+                .changeVersion(changeClock.next())
+                .build());
+    }
+
+    public Comment comment(Item item, User author, String text, LocalDateTime created) {
+        return commentRepository.save(Comment.builder()
+                .text(text)
+                .item(item)
+                .author(author)
+                .created(created)
+                .build());
+    }
+
+    public ItemRequest request(User requestor, String description) {
+        return requestRepository.save(ItemRequest.builder()
+                .description(description)
+                .requestor(requestor)
+                .created(now())
+                .build());
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.constants.BookingState;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.common.sql.SqlBudgetProperties;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Чтение бронирований укладывается в бюджеты SQL-запросов из application.properties: профиль {@code test}
+ * включает {@code shareit.sql-budget.mode=fail}, и запрос сверх бюджета завершается ошибкой 500.
+ * Перед каждым запросом кэш второго уровня очищается, потому что бюджеты рассчитаны на холодные кэши.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingControllerTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private SqlBudgetProperties budgetProperties;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Fixture fixture;
+
+    @BeforeEach
+    void setUp() {
+        assertThat(budgetProperties.getMode()).isEqualTo(SqlBudgetProperties.Mode.FAIL);
+        fixture = createFixture();
+    }
+
+    @Test
+    void getBookingStaysWithinBudget() throws Exception {
+        for (Long bookingId : fixture.bookingIds()) {
+            perform(get("/bookings/" + bookingId), fixture.booker())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(bookingId));
+            perform(get("/bookings/" + bookingId), fixture.owner())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(bookingId));
+        }
+
+        assertMeasuredWithinBudget("BookingController.getBooking");
+    }
+
+    @Test
+    void getBookingsByBookerStaysWithinBudgetForEveryState() throws Exception {
+        for (Map.Entry<BookingState, Integer> expected : fixture.expectedByState().entrySet()) {
+            perform(get("/bookings").param("state", expected.getKey().name()), fixture.booker())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(expected.getValue())));
+        }
+
+        assertMeasuredWithinBudget("BookingController.getBookingsByBooker");
+    }
+
+    @Test
+    void getBookingsForOwnerStaysWithinBudgetForEveryState() throws Exception {
+        for (Map.Entry<BookingState, Integer> expected : fixture.expectedByState().entrySet()) {
+            perform(get("/bookings/owner").param("state", expected.getKey().name()), fixture.owner())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(expected.getValue())));
+        }
+
+        assertMeasuredWithinBudget("BookingController.getBookingsForOwner");
+    }
+
+    @Test
+    void getBookingsForOwnerPagesStayWithinBudget() throws Exception {
+        perform(get("/bookings/owner").param("limit", "2"), fixture.owner())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        assertMeasuredWithinBudget("BookingController.getBookingsForOwner");
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request, Long userId) throws Exception {
+        testData.evictCaches();
+        return mockMvc.perform(request.header(USER_HEADER, userId).accept(MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Интерцептор бюджета действительно сработал для обработчика и ни один запрос не превысил бюджет.
+     */
+    private void assertMeasuredWithinBudget(String endpoint) {
+        DistributionSummary statements = meterRegistry.find("sql.statements.per.request")
+                .tag("endpoint", endpoint)
+                .summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.count()).isPositive();
+        assertThat(statements.max()).isLessThanOrEqualTo(budgetProperties.budgetFor(endpoint));
+    }
+
+    /**
+     * Владелец с {@link #ITEMS} вещами и бронирующий, у которого по каждой вещи бронирование
+     * в своём состоянии: прошедшее, текущее, будущее, ожидающее подтверждения и отклонённое.
+     */
+    private Fixture createFixture() {
+        return testData.inTransaction(() -> {
+            User owner = testData.user();
+            User booker = testData.user();
+            LocalDateTime now = TestData.now();
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < ITEMS; i++) {
+                items.add(testData.item(owner, "Палатка " + i, "Четырёхместная палатка"));
+            }
+            List<Long> bookingIds = Stream.of(
+                            testData.booking(items.get(0), booker, now.minusDays(3), now.minusDays(2),
+                                    BookingStatus.APPROVED),
+                            testData.booking(items.get(1), booker, now.minusDays(1), now.plusDays(1),
+                                    BookingStatus.APPROVED),
+                            testData.booking(items.get(2), booker, now.plusDays(2), now.plusDays(3),
+                                    BookingStatus.APPROVED),
+                            testData.booking(items.get(3), booker, now.plusDays(4), now.plusDays(5),
+                                    BookingStatus.WAITING),
+                            testData.booking(items.get(4), booker, now.plusDays(6), now.plusDays(7),
+                                    BookingStatus.REJECTED))
+                    .map(Booking::getId)
+                    .toList();
+            return new Fixture(owner.getId(), booker.getId(), bookingIds, Map.of(
+                    BookingState.ALL, 5,
+                    BookingState.PAST, 1,
+                    BookingState.CURRENT, 1,
+                    BookingState.FUTURE, 3,
+                    BookingState.WAITING, 1,
+                    BookingState.REJECTED, 1));
+        });
+    }
+
+    private record Fixture(Long owner, Long booker, List<Long> bookingIds, Map<BookingState, Integer> expectedByState) {
+    }
+}
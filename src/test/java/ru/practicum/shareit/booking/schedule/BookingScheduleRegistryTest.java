@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.schedule;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.storage.BookingInterval;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Выгрузка простаивающих расписаний и очистка закончившихся интервалов.
+ */
+class BookingScheduleRegistryTest {
+
+    private static final Long ITEM_ID = 1L;
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void idleScheduleIsEvictedAndReloadedOnNextUse() throws InterruptedException {
+        when(bookingRepository.findIntervalsByItem(eq(ITEM_ID), any(), any()))
+                .thenReturn(List.of(new Interval(10L, now.plusDays(1), now.plusDays(2))));
+        BookingScheduleRegistry registry = new BookingScheduleRegistry(bookingRepository, Duration.ZERO);
+
+        assertThat(overlapsSecondDay(registry)).isTrue();
+        Thread.sleep(5);
+        registry.sweep();
+
+        assertThat(overlapsSecondDay(registry)).isTrue();
+        verify(bookingRepository, times(2)).findIntervalsByItem(eq(ITEM_ID), any(), any());
+    }
+
+    @Test
+    void scheduleWithUnfinishedTransactionIsNotEvicted() throws InterruptedException {
+        when(bookingRepository.findIntervalsByItem(eq(ITEM_ID), any(), any())).thenReturn(List.of());
+        BookingScheduleRegistry registry = new BookingScheduleRegistry(bookingRepository, Duration.ZERO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        registry.withSchedule(ITEM_ID, schedule -> {
+            schedule.reserve(booking(20L, now.plusDays(1), now.plusDays(2)));
+            return null;
+        });
+        Thread.sleep(5);
+        registry.sweep();
+        assertThat(overlapsSecondDay(registry)).isTrue();
+        verify(bookingRepository, times(1)).findIntervalsByItem(eq(ITEM_ID), any(), any());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        Thread.sleep(5);
+        registry.sweep();
+        overlapsSecondDay(registry);
+        verify(bookingRepository, times(2)).findIntervalsByItem(eq(ITEM_ID), any(), any());
+    }
+
+    @Test
+    void endedIntervalIsPrunedAndCheckedInDatabase() throws InterruptedException {
+        when(bookingRepository.findIntervalsByItem(eq(ITEM_ID), any(), any())).thenReturn(List.of());
+        when(bookingRepository.existsEndedOverlap(eq(ITEM_ID), any(), any(), any(), any())).thenReturn(true);
+        BookingScheduleRegistry registry = new BookingScheduleRegistry(bookingRepository, Duration.ofHours(1));
+
+        registry.withSchedule(ITEM_ID, schedule -> {
+            schedule.reserve(booking(30L, now.minusHours(3), now.minusHours(2)));
+            return null;
+        });
+        Thread.sleep(5);
+        registry.sweep();
+
+        assertThat(registry.timeline(ITEM_ID).busy(Long.MIN_VALUE, Long.MAX_VALUE)).isEmpty();
+        boolean overlaps = registry.withSchedule(ITEM_ID,
+                schedule -> schedule.overlaps(now.minusMinutes(150), now.minusMinutes(140)));
+        assertThat(overlaps).isTrue();
+        verify(bookingRepository).existsEndedOverlap(eq(ITEM_ID), any(), any(), any(), any());
+    }
+
+    private boolean overlapsSecondDay(BookingScheduleRegistry registry) {
+        return registry.withSchedule(ITEM_ID,
+                schedule -> schedule.overlaps(now.plusDays(1).plusHours(1), now.plusDays(1).plusHours(2)));
+    }
+
+    private static Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder().id(id).start(start).end(end).build();
+    }
+
+    private record Interval(Long id, LocalDateTime start, LocalDateTime end) implements BookingInterval {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        @Override
+        public LocalDateTime getEnd() {
+            return end;
+        }
+    }
+}
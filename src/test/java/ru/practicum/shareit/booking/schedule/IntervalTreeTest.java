@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверка пересечения полуоткрытых интервалов и её согласованность с полным перебором
+ * после случайных вставок и удалений.
+ */
+class IntervalTreeTest {
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(10, 20, 1);
+
+        assertThat(tree.overlaps(0, 10)).isFalse();
+        assertThat(tree.overlaps(20, 30)).isFalse();
+        assertThat(tree.overlaps(19, 21)).isTrue();
+        assertThat(tree.overlaps(5, 11)).isTrue();
+        assertThat(tree.overlaps(12, 15)).isTrue();
+        assertThat(tree.overlaps(0, 100)).isTrue();
+    }
+
+    @Test
+    void removedIntervalNoLongerOverlaps() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(10, 20, 1);
+        tree.insert(10, 15, 2);
+
+        tree.remove(10, 1);
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.overlaps(16, 18)).isFalse();
+        assertThat(tree.overlaps(14, 16)).isTrue();
+    }
+
+    @Test
+    void overlapsMatchesBruteForceAfterRandomChanges() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            if (!intervals.isEmpty() && random.nextInt(3) == 0) {
+                long[] removed = intervals.remove(random.nextInt(intervals.size()));
+                tree.remove(removed[0], removed[2]);
+            } else {
+                long start = random.nextInt(10_000);
+                long[] interval = {start, start + 1 + random.nextInt(200), step};
+                intervals.add(interval);
+                tree.insert(interval[0], interval[1], interval[2]);
+            }
+
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(200);
+            boolean expected = intervals.stream().anyMatch(i -> i[0] < end && i[1] > start);
+            assertThat(tree.overlaps(start, end)).as("шаг %d: [%d, %d)", step, start, end).isEqualTo(expected);
+        }
+        assertThat(tree.size()).isEqualTo(intervals.size());
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.schedule;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.schedule.Timeline.Slot;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Слияние бронирований в занятые интервалы и свободные промежутки в окне.
+ */
+class TimelineTest {
+
+    private static final long HORIZON = 100;
+
+    @Test
+    void overlappingAndTouchingBookingsAreMerged() {
+        Timeline timeline = timeline(new long[][]{{10, 20}, {15, 30}, {30, 40}, {50, 60}, {52, 55}});
+
+        assertThat(timeline.busy(0, 100)).containsExactly(new Slot(10, 40), new Slot(50, 60));
+        assertThat(timeline.free(0, 100)).containsExactly(new Slot(0, 10), new Slot(40, 50), new Slot(60, 100));
+    }
+
+    @Test
+    void windowClipsIntervalsAtItsBorders() {
+        Timeline timeline = timeline(new long[][]{{10, 40}, {50, 60}, {70, 80}});
+
+        assertThat(timeline.busy(20, 55)).containsExactly(new Slot(20, 40), new Slot(50, 55));
+        assertThat(timeline.free(20, 55)).containsExactly(new Slot(40, 50));
+        assertThat(timeline.busy(40, 50)).isEmpty();
+        assertThat(timeline.free(40, 50)).containsExactly(new Slot(40, 50));
+        assertThat(timeline.free(12, 38)).isEmpty();
+    }
+
+    @Test
+    void endedIntervalsAreMergedIntoSnapshot() {
+        Timeline timeline = timeline(new long[][]{{100, 120}, {130, 140}})
+                .withEnded(List.of(new Slot(60, 80), new Slot(90, 100)), 50);
+
+        assertThat(timeline.horizon()).isEqualTo(50);
+        assertThat(timeline.busy(50, 150)).containsExactly(new Slot(60, 80), new Slot(90, 120), new Slot(130, 140));
+        assertThat(timeline.free(50, 150))
+                .containsExactly(new Slot(50, 60), new Slot(80, 90), new Slot(120, 130), new Slot(140, 150));
+    }
+
+    private static Timeline timeline(long[][] intervals) {
+        IntervalTree tree = new IntervalTree();
+        for (int i = 0; i < intervals.length; i++) {
+            tree.insert(intervals[i][0], intervals[i][1], i);
+        }
+        return Timeline.of(tree, HORIZON);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.storage.BookingInterval;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.common.exceptions.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Параллельные {@code createBooking} и {@code approveBooking} одной вещи не занимают пересекающиеся интервалы:
+ * ровно один из конкурентов успевает, остальные получают {@link ValidationException}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceImplTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void concurrentCreateBookingForSameSlotLetsOnlyOneThrough() throws Exception {
+        Item item = testData.inTransaction(() -> testData.item(testData.user(), "Байдарка", "Двухместная"));
+        LocalDateTime start = TestData.now().plusDays(1);
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(testData.user());
+        }
+
+        List<Callable<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User booker = bookers.get(i);
+            // Интервалы сдвинуты друг относительно друга, но все пересекаются между собой
+            LocalDateTime shifted = start.plusMinutes(i);
+            calls.add(() -> bookingService.createBooking(booker.getId(), BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(shifted)
+                    .end(shifted.plusHours(2))
+                    .build()));
+        }
+
+        List<Throwable> failures = runTogether(calls);
+
+        assertThat(failures).hasSize(THREADS - 1).allMatch(ValidationException.class::isInstance);
+        assertThat(occupying(item)).hasSize(1);
+    }
+
+    @Test
+    void concurrentApproveAndCreateForSameSlotLetOnlyOneThrough() throws Exception {
+        LocalDateTime start = TestData.now().plusDays(1);
+        User owner = testData.user();
+        User booker = testData.user();
+        User rival = testData.user();
+        Item item = testData.inTransaction(() -> testData.item(owner, "Палатка", "Трёхместная"));
+        Booking rejected = testData.booking(item, booker, start, start.plusHours(2), BookingStatus.REJECTED);
+
+        List<Throwable> failures = runTogether(List.of(
+                () -> bookingService.approveBooking(owner.getId(), rejected.getId(), true),
+                () -> bookingService.createBooking(rival.getId(), BookingDto.builder()
+                        .itemId(item.getId())
+                        .start(start.plusHours(1))
+                        .end(start.plusHours(3))
+                        .build())));
+
+        assertThat(failures).hasSize(1).allMatch(ValidationException.class::isInstance);
+        assertThat(occupying(item)).hasSize(1);
+    }
+
+    private List<BookingInterval> occupying(Item item) {
+        return bookingRepository.findIntervalsByItem(item.getId(),
+                EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED), TestData.now());
+    }
+
+    /**
+     * Запускает вызовы одновременно и возвращает исключения неудавшихся.
+     */
+    private static List<Throwable> runTogether(List<Callable<Object>> calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(calls.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> futures = new ArrayList<>();
+            for (Callable<Object> call : calls) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                try {
+                    future.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
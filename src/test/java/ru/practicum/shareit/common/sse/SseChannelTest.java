@@ -0,0 +1,137 @@
+package ru.practicum.shareit.common.sse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Дочитывание пропущенного по {@code Last-Event-ID}, событие {@code reset}, когда дочитать нельзя,
+ * и восстановление подписчика, которого обогнал кольцевой буфер.
+ */
+class SseChannelTest {
+
+    private static final int REPLAY_SIZE = 4;
+    private static final String EVENT = "booking";
+
+    @Test
+    void reconnectReplaysEventsAfterLastEventId() {
+        SseChannel channel = new SseChannel(REPLAY_SIZE);
+        long first = publish(channel, 3);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        boolean reset = channel.subscribe(subscriber(channel, emitter, Runnable::run), first);
+
+        assertThat(reset).isFalse();
+        assertThat(emitter.events).containsExactly(event(EVENT, first + 1), event(EVENT, first + 2));
+    }
+
+    @Test
+    void newClientStartsAfterLatestEvent() {
+        SseChannel channel = new SseChannel(REPLAY_SIZE);
+        publish(channel, 2);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        channel.subscribe(subscriber(channel, emitter, Runnable::run), null);
+        long next = publish(channel, 1);
+
+        assertThat(emitter.events).containsExactly(event(EVENT, next));
+    }
+
+    @Test
+    void overwrittenOrForeignLastEventIdGetsReset() {
+        SseChannel channel = new SseChannel(REPLAY_SIZE);
+        long first = publish(channel, REPLAY_SIZE + 2);
+        long head = channel.lastId();
+
+        for (long lastEventId : new long[]{first, 1L, head + 1}) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            boolean reset = channel.subscribe(subscriber(channel, emitter, Runnable::run), lastEventId);
+
+            assertThat(reset).as("Last-Event-ID %d", lastEventId).isTrue();
+            assertThat(emitter.events).as("Last-Event-ID %d", lastEventId)
+                    .containsExactly(event(SseChannel.RESET_EVENT, head));
+        }
+    }
+
+    @Test
+    void lappedSubscriberGetsResetAndContinues() {
+        SseChannel channel = new SseChannel(REPLAY_SIZE);
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        RecordingEmitter emitter = new RecordingEmitter();
+        AtomicInteger overflows = new AtomicInteger();
+        SseSubscriber subscriber = subscriber(channel, emitter, tasks::add);
+        subscriber.onOverflow(overflows::incrementAndGet);
+        channel.subscribe(subscriber, null);
+        runAll(tasks);
+
+        // Подписчик не успевает отправлять, а буфер за это время оборачивается
+        publish(channel, REPLAY_SIZE + 2);
+        assertThat(channel.backlog()).isEqualTo(REPLAY_SIZE + 2);
+        runAll(tasks);
+        long next = publish(channel, 1);
+        runAll(tasks);
+
+        assertThat(overflows).hasValue(1);
+        assertThat(emitter.events).containsExactly(event(SseChannel.RESET_EVENT, next - 1), event(EVENT, next));
+        assertThat(channel.backlog()).isZero();
+    }
+
+    /**
+     * Публикует {@code count} событий и возвращает номер первого из них.
+     */
+    private static long publish(SseChannel channel, int count) {
+        long first = channel.lastId() + 1;
+        for (int i = 0; i < count; i++) {
+            channel.publish(EVENT, "{}");
+        }
+        return first;
+    }
+
+    private static SseSubscriber subscriber(SseChannel channel, SseEmitter emitter, Executor executor) {
+        return new SseSubscriber(emitter, channel, executor, 3_000);
+    }
+
+    private static void runAll(Queue<Runnable> tasks) {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    private static String event(String name, long id) {
+        return name + "#" + id;
+    }
+
+    /**
+     * Запоминает отправленные события как {@code имя#номер}; комментарии (heartbeat) пропускает.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            String id = null;
+            String name = null;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                }
+            }
+            if (name != null) {
+                events.add(name + "#" + id);
+            }
+        }
+    }
+}
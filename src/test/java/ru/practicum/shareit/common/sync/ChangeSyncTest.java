@@ -0,0 +1,138 @@
+package ru.practicum.shareit.common.sync;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Синхронизация по токену: ответ содержит только сущности, созданные или изменённые после токена,
+ * и новый токен; изменения делаются через сервисы, которые назначают версии.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChangeSyncTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void itemChangesContainOnlyItemsChangedSinceToken() throws Exception {
+        Long owner = testData.user().getId();
+        Long drill = createItem(owner, "Дрель");
+        Long tent = createItem(owner, "Палатка");
+
+        DocumentContext all = changes("/items/changes", owner, null, 100);
+        assertThat(ids(all)).containsExactly(drill, tent);
+
+        itemService.updateItem(owner, drill, ItemDto.builder().name("Дрель ударная").build());
+        DocumentContext changed = changes("/items/changes", owner, token(all), 100);
+        assertThat(ids(changed)).containsExactly(drill);
+        assertThat(changed.<String>read("$.changed[0].name")).isEqualTo("Дрель ударная");
+        assertThat(changed.<Boolean>read("$.hasMore")).isFalse();
+
+        assertThat(ids(changes("/items/changes", owner, token(changed), 100))).isEmpty();
+    }
+
+    @Test
+    void bookingChangesContainOnlyBookingsChangedSinceToken() throws Exception {
+        Long owner = testData.user().getId();
+        Long booker = testData.user().getId();
+        Long item = createItem(owner, "Байдарка");
+        LocalDateTime start = TestData.now().plusDays(1);
+        Long first = createBooking(booker, item, start);
+        Long second = createBooking(booker, item, start.plusDays(2));
+
+        DocumentContext bookerAll = changes("/bookings/changes", booker, null, 100);
+        DocumentContext ownerAll = changes("/bookings/owner/changes", owner, null, 100);
+        assertThat(ids(bookerAll)).containsExactly(first, second);
+        assertThat(ids(ownerAll)).containsExactly(first, second);
+
+        bookingService.approveBooking(owner, second, true);
+
+        DocumentContext bookerChanged = changes("/bookings/changes", booker, token(bookerAll), 100);
+        assertThat(ids(bookerChanged)).containsExactly(second);
+        assertThat(bookerChanged.<String>read("$.changed[0].status")).isEqualTo(BookingStatus.APPROVED.name());
+        assertThat(ids(changes("/bookings/owner/changes", owner, token(ownerAll), 100))).containsExactly(second);
+    }
+
+    @Test
+    void changesArePagedWithHasMore() throws Exception {
+        Long owner = testData.user().getId();
+        Long drill = createItem(owner, "Дрель");
+        Long tent = createItem(owner, "Палатка");
+
+        DocumentContext first = changes("/items/changes", owner, null, 1);
+        assertThat(ids(first)).containsExactly(drill);
+        assertThat(first.<Boolean>read("$.hasMore")).isTrue();
+
+        DocumentContext second = changes("/items/changes", owner, token(first), 1);
+        assertThat(ids(second)).containsExactly(tent);
+        assertThat(second.<Boolean>read("$.hasMore")).isFalse();
+    }
+
+    private Long createItem(Long owner, String name) {
+        return itemService.createItem(owner, ItemDto.builder()
+                .name(name)
+                .description(name + " в хорошем состоянии")
+                .available(true)
+                .build()).getId();
+    }
+
+    private Long createBooking(Long booker, Long item, LocalDateTime start) {
+        return bookingService.createBooking(booker, BookingDto.builder()
+                .itemId(item)
+                .start(start)
+                .end(start.plusDays(1))
+                .build()).getId();
+    }
+
+    private DocumentContext changes(String path, Long userId, String since, int limit) throws Exception {
+        MockHttpServletRequestBuilder request = get(path).param("limit", Integer.toString(limit));
+        if (since != null) {
+            request.param("since", since);
+        }
+        String body = mockMvc.perform(request.header(USER_HEADER, userId).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return JsonPath.parse(body);
+    }
+
+    private static String token(DocumentContext changes) {
+        return changes.read("$.token");
+    }
+
+    private static List<Long> ids(DocumentContext changes) {
+        List<Number> ids = changes.read("$.changed[*].id");
+        return ids.stream().map(Number::longValue).toList();
+    }
+}
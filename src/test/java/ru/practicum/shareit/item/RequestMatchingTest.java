@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Подбор открытых запросов к вещи владельца и привязка вещи к запросу.
+ * Запросы и вещи создаются через сервисы, чтобы они попали в индекс подбора после фиксации.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RequestMatchingTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService requestService;
+
+    private Long owner;
+    private Long requestor;
+    private Long item;
+
+    @BeforeEach
+    void setUp() {
+        owner = testData.user().getId();
+        requestor = testData.user().getId();
+        item = itemService.createItem(owner, ItemDto.builder()
+                .name("Дрель ударная")
+                .description("Сетевая, с набором свёрл")
+                .available(true)
+                .build()).getId();
+    }
+
+    @Test
+    void bestMatchingRequestsComeFirst() throws Exception {
+        Long drill = request(requestor, "Нужна ударная дрель на выходные");
+        Long anyDrill = request(requestor, "Ищу дрель");
+        Long tent = request(requestor, "Нужна палатка");
+
+        List<Long> matches = matches(owner);
+
+        assertThat(matches).contains(drill, anyDrill).doesNotContain(tent);
+        assertThat(matches.indexOf(drill)).isLessThan(matches.indexOf(anyDrill));
+    }
+
+    @Test
+    void ownRequestsAreNotSuggested() throws Exception {
+        Long own = request(owner, "Нужна ударная дрель");
+        Long others = request(requestor, "Нужна ударная дрель");
+
+        assertThat(matches(owner)).contains(others).doesNotContain(own);
+    }
+
+    @Test
+    void attachValidatesRequestAndClosesIt() throws Exception {
+        Long own = request(owner, "Нужна ударная дрель");
+        Long first = request(requestor, "Нужна ударная дрель");
+        Long second = request(requestor, "Ищу ударную дрель");
+
+        attach(Long.MAX_VALUE).andExpect(status().isNotFound());
+        attach(own).andExpect(status().isBadRequest());
+        attach(first).andExpect(status().isOk());
+        attach(second).andExpect(status().isBadRequest());
+
+        assertThat(matches(owner)).doesNotContain(first).contains(second);
+    }
+
+    private Long request(Long userId, String description) {
+        return requestService.createRequest(userId, ItemRequestDto.builder().description(description).build()).getId();
+    }
+
+    private List<Long> matches(Long userId) throws Exception {
+        String body = perform(get("/items/" + item + "/matching-requests").param("limit", "50"), userId)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Number> ids = JsonPath.read(body, "$[*].id");
+        return ids.stream().map(Number::longValue).toList();
+    }
+
+    private ResultActions attach(Long requestId) throws Exception {
+        return perform(patch("/items/" + item)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"requestId\": " + requestId + "}"), owner);
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request, Long userId) throws Exception {
+        return mockMvc.perform(request.header(USER_HEADER, userId).accept(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Индекс в памяти и {@code LIKE}-запрос находят одни и те же вещи; индекс ранжирует их и листает
+ * по курсору без повторного ранжирования, пока индекс не изменился.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemSearchIndexTest {
+
+    private static final int LIMIT = 10_000;
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private TestData testData;
+
+    private JpaItemSearchIndex database;
+    private User owner;
+    private String marker;
+
+    @BeforeEach
+    void setUp() {
+        database = new JpaItemSearchIndex(itemRepository);
+        owner = testData.user();
+        marker = "метка" + System.nanoTime();
+    }
+
+    @Test
+    void backendsFindTheSameItems() {
+        Item drill = testData.item(owner, "Дрель ударная " + marker, "Сетевая");
+        testData.item(owner, "Ударная " + marker, "Не дрель");
+        Item fullCharge = testData.item(owner, "Аккумулятор " + marker, "Заряд 100% за час");
+        testData.item(owner, "Аккумулятор " + marker, "Заряд 1000 мА·ч");
+        Item underscore = testData.item(owner, "a_b " + marker, "Разъём");
+        testData.item(owner, "axb " + marker, "Разъём");
+        InMemoryItemSearchIndex memory = memoryIndex();
+
+        assertThat(ids(memory, "ДРЕЛЬ УДАРНАЯ " + marker)).containsExactly(drill.getId());
+        assertThat(ids(memory, "ударная дрель")).doesNotContain(drill.getId());
+        assertThat(ids(memory, "100%")).contains(fullCharge.getId()).hasSize(ids(database, "100%").size());
+        assertThat(ids(memory, "a_b " + marker)).containsExactly(underscore.getId());
+        for (String text : List.of("дрель ударная", "ударная дрель", "100%", "a_b", "др", "%", marker)) {
+            assertThat(ids(memory, text)).as(text).isEqualTo(ids(database, text));
+        }
+    }
+
+    @Test
+    void memoryIndexRanksAndPagesWithCursor() {
+        Item nameStart = testData.item(owner, marker + " лопата", "Штыковая");
+        Item description = testData.item(owner, "Лопата", "Для " + marker);
+        Item nameMiddle = testData.item(owner, "Супер" + marker, "Тоже " + marker);
+        Item everywhere = testData.item(owner, marker, marker);
+        InMemoryItemSearchIndex memory = memoryIndex();
+
+        List<SearchHit> first = memory.search(marker, null, 2);
+        assertThat(first).extracting(SearchHit::itemId).containsExactly(everywhere.getId(), nameStart.getId());
+        List<SearchHit> second = memory.search(marker, first.get(1), 2);
+        assertThat(second).extracting(SearchHit::itemId).containsExactly(nameMiddle.getId(), description.getId());
+        assertThat(memory.search(marker, second.get(1), 2)).isEmpty();
+
+        // После изменения вещи закэшированное ранжирование устаревает
+        description.setName(marker);
+        memory.index(description);
+        assertThat(memory.search(marker, first.get(1), 2)).extracting(SearchHit::itemId)
+                .containsExactly(nameMiddle.getId());
+    }
+
+    private InMemoryItemSearchIndex memoryIndex() {
+        InMemoryItemSearchIndex memory = new InMemoryItemSearchIndex(itemRepository);
+        memory.warmUp();
+        return memory;
+    }
+
+    private static Set<Long> ids(ItemSearchIndex index, String text) {
+        return index.search(text, null, LIMIT).stream()
+                .map(SearchHit::itemId)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.common.pagination.PageParams;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL-запросов списка вещей владельца не зависит от числа вещей: комментарии и бронирования
+ * загружаются пакетно для всей страницы. Календарь занятости показывает и закончившиеся бронирования.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemServiceImplTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getItemsByOwnerWithFreshSummariesRunsSameStatementsForAnyItemCount() {
+        List<Long> counts = new ArrayList<>();
+        for (int items : new int[]{1, 10, 100}) {
+            Owner owner = createOwnerWithItems(items);
+            owner.itemIds().forEach(summaryService::refresh);
+            counts.add(countStatements(owner, items));
+        }
+
+        assertThat(counts).containsOnly(counts.get(0));
+    }
+
+    @Test
+    void getItemsByOwnerWithStaleSummariesRunsSameStatementsForAnyItemCount() {
+        List<Long> counts = new ArrayList<>();
+        for (int items : new int[]{1, 10, 100}) {
+            Owner owner = createOwnerWithItems(items);
+            counts.add(countStatements(owner, items));
+        }
+
+        assertThat(counts).containsOnly(counts.get(0));
+    }
+
+    @Test
+    void getAvailabilityReportsEndedBookingsInPastWindow() {
+        LocalDateTime now = TestData.now();
+        Item item = testData.inTransaction(() -> {
+            User booker = testData.user();
+            Item saved = testData.item(testData.user(), "Шуруповёрт", "С набором бит");
+            testData.booking(saved, booker, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+            testData.booking(saved, booker, now.minusDays(2), now.minusDays(1), BookingStatus.WAITING);
+            testData.booking(saved, booker, now.minusHours(12), now.minusHours(6), BookingStatus.REJECTED);
+            testData.booking(saved, booker, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+            return saved;
+        });
+
+        ItemAvailabilityDto availability = itemService.getAvailability(item.getId(), now.minusDays(4), now.plusDays(3));
+
+        assertThat(availability.getBusy()).containsExactly(
+                new TimeSlotDto(now.minusDays(3), now.minusDays(1)),
+                new TimeSlotDto(now.plusDays(1), now.plusDays(2)));
+        assertThat(availability.getFree()).containsExactly(
+                new TimeSlotDto(now.minusDays(4), now.minusDays(3)),
+                new TimeSlotDto(now.minusDays(1), now.plusDays(1)),
+                new TimeSlotDto(now.plusDays(2), now.plusDays(3)));
+    }
+
+    /**
+     * Загружает вещи владельца с холодным кэшем второго уровня и возвращает число выполненных запросов.
+     */
+    private long countStatements(Owner owner, int items) {
+        testData.evictCaches();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemDto> dtos = itemService.getItemsByOwner(owner.id(), PageParams.of(null, PageParams.MAX_LIMIT))
+                .getItems();
+
+        long statements = statistics.getPrepareStatementCount();
+        assertThat(dtos).hasSize(items);
+        assertThat(dtos).allSatisfy(dto -> {
+            assertThat(dto.getLastBooking()).isNotNull();
+            assertThat(dto.getNextBooking()).isNotNull();
+            assertThat(dto.getComments()).hasSize(1);
+        });
+        return statements;
+    }
+
+    /**
+     * Владелец с {@code items} вещами; у каждой вещи прошедшее и будущее бронирование и отзыв.
+     * Сводки бронирований вещей не заполнены.
+     */
+    private Owner createOwnerWithItems(int items) {
+        return testData.inTransaction(() -> {
+            User owner = testData.user();
+            User booker = testData.user();
+            LocalDateTime now = TestData.now();
+            List<Long> itemIds = new ArrayList<>();
+            for (int i = 0; i < items; i++) {
+                Item item = testData.item(owner, "Дрель " + i, "Аккумуляторная дрель");
+                testData.booking(item, booker, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+                testData.booking(item, booker, now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+                testData.comment(item, booker, "Отличная дрель", now.minusDays(1));
+                itemIds.add(item.getId());
+            }
+            return new Owner(owner.getId(), itemIds);
+        });
+    }
+
+    private record Owner(Long id, List<Long> itemIds) {
+    }
+}
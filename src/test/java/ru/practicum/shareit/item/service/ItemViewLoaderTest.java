@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.item.summary.ItemBookings;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Карточка вещи: части загружаются одновременно, опоздавшая необязательная часть попадает в {@code missingParts}.
+ */
+class ItemViewLoaderTest {
+
+    private static final Long OWNER_ID = 1L;
+    private static final Long OTHER_ID = 2L;
+    private static final Long ITEM_ID = 10L;
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private final ItemBookingSummaryService summaryService = mock(ItemBookingSummaryService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final Item item = Item.builder().id(ITEM_ID).owner(User.builder().id(OWNER_ID).build()).build();
+    private final ItemBookings bookings = new ItemBookings(Booking.builder().id(100L).build(), null);
+
+    @AfterEach
+    void shutdown() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    void ownerBookingsLoadWhileItemIsStillLoading() {
+        CountDownLatch bookingsStarted = new CountDownLatch(1);
+        when(itemRepository.findById(ITEM_ID)).thenAnswer(invocation -> {
+            // Если бронирования ждут вещь, защёлка не откроется и вещь придёт с опозданием
+            assertThat(bookingsStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return Optional.of(item);
+        });
+        when(itemRepository.existsByIdAndOwnerId(ITEM_ID, OWNER_ID)).thenReturn(true);
+        when(summaryService.findForItems(anyCollection())).thenAnswer(invocation -> {
+            bookingsStarted.countDown();
+            return Map.of(ITEM_ID, bookings);
+        });
+        when(commentRepository.findAllByItemIdInWithAuthor(any())).thenReturn(List.of());
+
+        ItemViewLoader.ItemView view = loader(Duration.ofSeconds(10)).load(OWNER_ID, ITEM_ID);
+
+        assertThat(view.item()).isSameAs(item);
+        assertThat(view.bookings()).isEqualTo(bookings);
+        assertThat(view.missingParts()).isEmpty();
+    }
+
+    @Test
+    void lateCommentsAreReportedAsMissing() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(itemRepository.findById(ITEM_ID)).thenReturn(Optional.of(item));
+        when(itemRepository.existsByIdAndOwnerId(ITEM_ID, OWNER_ID)).thenReturn(true);
+        when(summaryService.findForItems(anyCollection())).thenReturn(Map.of(ITEM_ID, bookings));
+        when(commentRepository.findAllByItemIdInWithAuthor(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(Comment.builder().id(1L).build());
+        });
+
+        ItemViewLoader.ItemView view;
+        try {
+            view = loader(Duration.ofMillis(100)).load(OWNER_ID, ITEM_ID);
+        } finally {
+            release.countDown();
+        }
+
+        assertThat(view.comments()).isEmpty();
+        assertThat(view.bookings()).isEqualTo(bookings);
+        assertThat(view.missingParts()).containsExactly(ItemViewLoader.COMMENTS);
+    }
+
+    @Test
+    void otherUserGetsNoBookings() {
+        when(itemRepository.findById(ITEM_ID)).thenReturn(Optional.of(item));
+        when(itemRepository.existsByIdAndOwnerId(ITEM_ID, OTHER_ID)).thenReturn(false);
+        when(commentRepository.findAllByItemIdInWithAuthor(any())).thenReturn(List.of());
+
+        ItemViewLoader.ItemView view = loader(Duration.ofSeconds(10)).load(OTHER_ID, ITEM_ID);
+
+        assertThat(view.bookings()).isEqualTo(ItemBookings.NONE);
+        assertThat(view.missingParts()).isEmpty();
+        verify(summaryService, never()).findForItems(anyCollection());
+    }
+
+    private ItemViewLoader loader(Duration partTimeout) {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        AsyncTaskExecutor executor = new TaskExecutorAdapter(threads);
+        return new ItemViewLoader(itemRepository, commentRepository, summaryService, executor, transactionManager,
+                Duration.ofSeconds(10), partTimeout, partTimeout, new SimpleMeterRegistry());
+    }
+}
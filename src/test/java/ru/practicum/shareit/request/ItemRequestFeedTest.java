@@ -0,0 +1,116 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Поток новых запросов {@code /requests/events}: запрос приходит подписчику после фиксации,
+ * переподключение с {@code Last-Event-ID} дочитывает пропущенное, а устаревший номер даёт {@code reset}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemRequestFeedTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final long WAIT_MILLIS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private ItemRequestService requestService;
+
+    @Test
+    void createdRequestIsStreamedAndReplayedAfterReconnect() throws Exception {
+        Long subscriber = testData.user().getId();
+        Long requestor = testData.user().getId();
+        MockHttpServletResponse stream = subscribe(subscriber, null);
+
+        String first = "Нужен перфоратор " + System.nanoTime();
+        createRequest(requestor, first);
+        String received = awaitContent(stream, first);
+        String second = "Нужна стремянка " + System.nanoTime();
+        createRequest(requestor, second);
+
+        MockHttpServletResponse reconnected = subscribe(subscriber, eventId(received, first));
+        String replayed = awaitContent(reconnected, second);
+        assertThat(replayed).doesNotContain(first).doesNotContain("event:reset");
+    }
+
+    @Test
+    void staleLastEventIdGetsReset() throws Exception {
+        MockHttpServletResponse stream = subscribe(testData.user().getId(), "1");
+
+        assertThat(awaitContent(stream, "event:reset")).doesNotContain("event:request-created");
+    }
+
+    @Test
+    void unknownUserCannotSubscribe() throws Exception {
+        mockMvc.perform(get("/requests/events").header(USER_HEADER, Long.MAX_VALUE)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+
+    private MockHttpServletResponse subscribe(Long userId, String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder subscription = get("/requests/events")
+                .header(USER_HEADER, userId)
+                .accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            subscription.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult result = mockMvc.perform(subscription)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+
+    private void createRequest(Long userId, String description) {
+        requestService.createRequest(userId, ItemRequestDto.builder().description(description).build());
+    }
+
+    /**
+     * Ждёт, пока в потоке появится {@code expected}, и возвращает всё, что пришло к этому моменту.
+     */
+    private static String awaitContent(MockHttpServletResponse stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        String content = stream.getContentAsString(StandardCharsets.UTF_8);
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getContentAsString(StandardCharsets.UTF_8);
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    /**
+     * Номер события, в данных которого есть {@code text}.
+     */
+    private static String eventId(String content, String text) {
+        Matcher matcher = Pattern.compile("id:(\\d+)\\n(?:[^\\n]+\\n)*?data:[^\\n]*" + Pattern.quote(text))
+                .matcher(content);
+        assertThat(matcher.find()).isTrue();
+        return matcher.group(1);
+    }
+}